@@ -4,14 +4,17 @@ import com.jsimul.core.Environment;
 import com.jsimul.core.Event;
 import com.jsimul.core.SimEvent;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.function.BiFunction;
 
 /**
  * Compositional core for shared resources (put/get queues).
  *
+ * <p>Waiting events sit in {@link WaitQueue}s and keep their node, so enqueueing, completing and
+ * cancelling a waiter are O(1). A trigger pass walks the queue from the head and stops at the
+ * first event whose put/get behaviour returns {@code false}; behaviours return {@code false}
+ * when nothing queued behind that event can proceed either (a full resource, an empty store),
+ * which keeps a release from rescanning a long line of requests that cannot be granted.
+ *
  * @param <P> the type of Put event
  * @param <G> the type of Get event
  * @author waiting
@@ -23,9 +26,9 @@ public class BaseResource<P extends SimEvent, G extends SimEvent> {
 
     final int capacity;
 
-    final List<P> putQueue = Collections.synchronizedList(new ArrayList<>());
+    final WaitQueue<P> putQueue = new WaitQueue<>();
 
-    final List<G> getQueue = Collections.synchronizedList(new ArrayList<>());
+    final WaitQueue<G> getQueue = new WaitQueue<>();
 
     private final BiFunction<P, BaseResource<P, G>, Boolean> doPut;
 
@@ -56,36 +59,34 @@ public class BaseResource<P extends SimEvent, G extends SimEvent> {
 
     public void triggerPut(Event getEvent) {
         synchronized (putQueue) {
-            int idx = 0;
-            while (idx < putQueue.size()) {
-                P se = putQueue.get(idx);
-                Event e = se.asEvent();
+            WaitQueue.Node<P> node = putQueue.first();
+            while (node != null) {
+                P se = node.item;
                 boolean proceed = _doPut(se);
+                WaitQueue.Node<P> next = putQueue.next(node);
                 // Keep pending events in the queue; remove completed ones
-                if (!e.triggered()) {
-                    idx++;
-                } else if (putQueue.remove(idx) != se) {
+                if (se.asEvent().triggered() && !putQueue.remove(node)) {
                     throw new RuntimeException("Put queue invariant violated");
                 }
                 if (!proceed) break;
+                node = next;
             }
         }
     }
 
     public void triggerGet(Event putEvent) {
         synchronized (getQueue) {
-            int idx = 0;
-            while (idx < getQueue.size()) {
-                G se = getQueue.get(idx);
-                Event e = se.asEvent();
+            WaitQueue.Node<G> node = getQueue.first();
+            while (node != null) {
+                G se = node.item;
                 boolean proceed = _doGet(se);
+                WaitQueue.Node<G> next = getQueue.next(node);
                 // Keep pending events in the queue; remove completed ones
-                if (!e.triggered()) {
-                    idx++;
-                } else if (getQueue.remove(idx) != se) {
+                if (se.asEvent().triggered() && !getQueue.remove(node)) {
                     throw new RuntimeException("Get queue invariant violated");
                 }
                 if (!proceed) break;
+                node = next;
             }
         }
     }
@@ -19,17 +19,19 @@ public class FilterStoreGet<T> implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<FilterStoreGet<T>> node;
+
     FilterStoreGet(BaseResource<?, FilterStoreGet<T>> resource, Predicate<T> filter) {
         this.resource = resource;
         this.filter = filter;
         this.inner = new Event(resource.env);
-        resource.getQueue.add(this);
+        this.node = resource.getQueue.add(this);
         this.inner.addCallback(resource::triggerPut);
         resource.triggerGet(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.getQueue.remove(this);
+        if (!inner.triggered()) resource.getQueue.remove(node);
     }
 
     @Override
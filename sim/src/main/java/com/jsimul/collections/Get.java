@@ -15,16 +15,18 @@ public class Get implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<Get> node;
+
     Get(BaseResource<Put, Get> resource) {
         this.resource = resource;
         this.inner = new Event(resource.env);
-        resource.getQueue.add(this);
+        this.node = resource.getQueue.add(this);
         this.inner.addCallback(resource::triggerPut);
         resource.triggerGet(null);
     }
 
     public void cancel() {
-        if (!this.inner.triggered()) resource.getQueue.remove(this);
+        if (!inner.triggered()) resource.getQueue.remove(node);
     }
 
     @Override
@@ -17,17 +17,19 @@ public class GetEvent implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<GetEvent> node;
+
     GetEvent(BaseResource<PutEvent, GetEvent> resource, double amount) {
         this.resource = resource;
         this.amount = amount;
         this.inner = new Event(resource.env);
-        resource.getQueue.add(this);
+        this.node = resource.getQueue.add(this);
         this.inner.addCallback(resource::triggerPut);
         resource.triggerGet(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.getQueue.remove(this);
+        if (!inner.triggered()) resource.getQueue.remove(node);
     }
 
     @Override
@@ -0,0 +1,142 @@
+package com.jsimul.collections;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 4-ary min-heap whose elements record their own position, so an arbitrary element can be
+ * removed in O(log n) without searching for it. Used for priority waiting lines where requests
+ * are withdrawn (cancelled, timed out) from the middle.
+ *
+ * <p>The position lives in a field of the element, read and written through {@link Positions};
+ * {@code -1} means the element is not in this heap. A 4-ary layout halves the depth of a binary
+ * heap and keeps the children of a node in one cache line's worth of references.
+ *
+ * @param <E> the type of element
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class IndexedHeap<E> {
+
+    /**
+     * Access to the position field an element reserves for this heap.
+     */
+    interface Positions<E> {
+        int get(E element);
+
+        void set(E element, int index);
+    }
+
+    private static final int ARITY = 4;
+
+    private final Comparator<? super E> order;
+
+    private final Positions<E> positions;
+
+    private Object[] heap = new Object[16];
+
+    private int size;
+
+    IndexedHeap(Comparator<? super E> order, Positions<E> positions) {
+        this.order = order;
+        this.positions = positions;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(E element) {
+        int i = positions.get(element);
+        return i >= 0 && i < size && heap[i] == element;
+    }
+
+    void add(E element) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        siftUp(size++, element);
+    }
+
+    /**
+     * @return least element, or {@code null} when empty
+     */
+    @SuppressWarnings("unchecked")
+    E peek() {
+        return size == 0 ? null : (E) heap[0];
+    }
+
+    /**
+     * @return least element after removing it, or {@code null} when empty
+     */
+    E poll() {
+        E first = peek();
+        if (first != null) removeAt(0);
+        return first;
+    }
+
+    /**
+     * @return whether {@code element} was in the heap
+     */
+    boolean remove(E element) {
+        if (!contains(element)) return false;
+        removeAt(positions.get(element));
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeAt(int index) {
+        E removed = (E) heap[index];
+        positions.set(removed, -1);
+        E last = (E) heap[--size];
+        heap[size] = null;
+        if (index == size) return;
+        siftDown(index, last);
+        if (heap[index] == last) {
+            siftUp(index, last);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int index, E element) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            E p = (E) heap[parent];
+            if (order.compare(element, p) >= 0) break;
+            place(index, p);
+            index = parent;
+        }
+        place(index, element);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int index, E element) {
+        while (true) {
+            int child = index * ARITY + 1;
+            if (child >= size) break;
+            int end = Math.min(child + ARITY, size);
+            int best = child;
+            E bestElement = (E) heap[child];
+            for (int c = child + 1; c < end; c++) {
+                E candidate = (E) heap[c];
+                if (order.compare(candidate, bestElement) < 0) {
+                    best = c;
+                    bestElement = candidate;
+                }
+            }
+            if (order.compare(bestElement, element) >= 0) break;
+            place(index, bestElement);
+            index = best;
+        }
+        place(index, element);
+    }
+
+    private void place(int index, E element) {
+        heap[index] = element;
+        positions.set(element, index);
+    }
+}
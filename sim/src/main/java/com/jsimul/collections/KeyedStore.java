@@ -0,0 +1,281 @@
+package com.jsimul.collections;
+
+import com.jsimul.core.Environment;
+import com.jsimul.core.Event;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Store whose items are bucketed by a key, for gets that ask for a key instead of scanning.
+ *
+ * <p>Where a {@link FilterStore} tests every item against every waiting filter on each put, a
+ * keyed store files each item under {@code keyOf(item)} and each waiting get under the keys it
+ * asks for. A get for a key takes the oldest item in that bucket in O(1), and a processed put
+ * only serves the waiters of its own key. Gets may name several keys ({@link #getAny}, served
+ * from the first listed key that has an item) or, as a fallback, a {@link Predicate} like a
+ * {@link FilterStore}; filter gets cost a scan of the items and are checked on every put.
+ * Waiters are served in arrival order among those that want the same item.
+ *
+ * <p>As in the other stores, a put is accepted while fewer than {@code capacity} items are
+ * stored, waiting gets are served when the put is processed and waiting puts are admitted when
+ * a get is processed.
+ *
+ * @param <K> the type of key
+ * @param <T> the type of items stored
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class KeyedStore<K, T> {
+
+    final Environment env;
+
+    private final int capacity;
+
+    private final Function<? super T, ? extends K> keyOf;
+
+    /**
+     * Items by key, oldest first; empty buckets are dropped. Linked for deterministic scans.
+     */
+    private final Map<K, ArrayDeque<T>> buckets = new LinkedHashMap<>();
+
+    private int size;
+
+    /**
+     * Waiting key gets by key; empty queues are dropped.
+     */
+    private final Map<K, WaitQueue<KeyedStoreGet<K, T>>> keyWaiters = new HashMap<>();
+
+    private final WaitQueue<KeyedStoreGet<K, T>> filterWaiters = new WaitQueue<>();
+
+    private final WaitQueue<KeyedStorePut<T>> putWaiters = new WaitQueue<>();
+
+    private long order;
+
+    /**
+     * @param keyOf extracts the key an item is filed under; must not change while stored
+     */
+    public KeyedStore(Environment env, int capacity, Function<? super T, ? extends K> keyOf) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.env = env;
+        this.capacity = capacity;
+        this.keyOf = Objects.requireNonNull(keyOf, "keyOf");
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of items stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of items stored under {@code key}
+     */
+    public int count(K key) {
+        ArrayDeque<T> bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    public KeyedStorePut<T> put(T item) {
+        return new KeyedStorePut<>(this, item);
+    }
+
+    /**
+     * Get the oldest item stored under {@code key}.
+     */
+    public KeyedStoreGet<K, T> get(K key) {
+        return new KeyedStoreGet<>(this, List.of(key), null, order++);
+    }
+
+    /**
+     * Get an item stored under any of {@code keys}, preferring earlier keys.
+     */
+    public KeyedStoreGet<K, T> getAny(Collection<? extends K> keys) {
+        if (keys.isEmpty()) throw new IllegalArgumentException("keys cannot be empty");
+        return new KeyedStoreGet<>(this, List.copyOf(keys), null, order++);
+    }
+
+    /**
+     * Get the first stored item matching {@code filter}; scans the items, see the class docs.
+     */
+    public KeyedStoreGet<K, T> get(Predicate<? super T> filter) {
+        return new KeyedStoreGet<>(this, null, Objects.requireNonNull(filter, "filter"), order++);
+    }
+
+    void onPut(KeyedStorePut<T> put) {
+        if (size < capacity && putWaiters.isEmpty()) {
+            store(put);
+        } else {
+            put.node = putWaiters.add(put);
+        }
+    }
+
+    void onGet(KeyedStoreGet<K, T> get) {
+        T item = take(get);
+        if (item != null) {
+            get.asEvent().succeed(item);
+            return;
+        }
+        if (get.keys == null) {
+            get.nodes = nodes(1);
+            get.nodes[0] = filterWaiters.add(get);
+            return;
+        }
+        get.nodes = nodes(get.keys.size());
+        for (int i = 0; i < get.nodes.length; i++) {
+            get.nodes[i] = keyWaiters.computeIfAbsent(get.keys.get(i), k -> new WaitQueue<>()).add(get);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> WaitQueue.Node<E>[] nodes(int n) {
+        return new WaitQueue.Node[n];
+    }
+
+    void withdraw(KeyedStorePut<T> put) {
+        putWaiters.remove(put.node);
+    }
+
+    void withdraw(KeyedStoreGet<K, T> get) {
+        if (get.nodes == null) return;
+        if (get.keys == null) {
+            filterWaiters.remove(get.nodes[0]);
+        } else {
+            for (int i = 0; i < get.nodes.length; i++) {
+                K key = get.keys.get(i);
+                WaitQueue<KeyedStoreGet<K, T>> queue = keyWaiters.get(key);
+                if (queue != null && queue.remove(get.nodes[i]) && queue.isEmpty()) {
+                    keyWaiters.remove(key);
+                }
+            }
+        }
+        get.nodes = null;
+    }
+
+    /**
+     * Callback of a processed put: hand items under {@code item}'s key to waiting gets.
+     */
+    void serve(T item) {
+        K key = keyOf.apply(item);
+        ArrayDeque<T> bucket;
+        while ((bucket = buckets.get(key)) != null) {
+            WaitQueue<KeyedStoreGet<K, T>> queue = keyWaiters.get(key);
+            WaitQueue.Node<KeyedStoreGet<K, T>> head = queue == null ? null : queue.first();
+            KeyedStoreGet<K, T> keyed = head == null ? null : head.item;
+            if (serveFilter(key, bucket, keyed)) continue;
+            if (keyed == null) return;
+            withdraw(keyed);
+            keyed.asEvent().succeed(removeFirst(key, bucket));
+        }
+    }
+
+    /**
+     * Serve the oldest filter get that arrived before {@code keyed} (any, if null) and matches
+     * an item of {@code bucket}.
+     *
+     * @return whether a filter get was served
+     */
+    private boolean serveFilter(K key, ArrayDeque<T> bucket, KeyedStoreGet<K, T> keyed) {
+        WaitQueue.Node<KeyedStoreGet<K, T>> n = filterWaiters.first();
+        for (; n != null; n = filterWaiters.next(n)) {
+            KeyedStoreGet<K, T> get = n.item;
+            if (keyed != null && get.order > keyed.order) return false;
+            for (Iterator<T> it = bucket.iterator(); it.hasNext(); ) {
+                T item = it.next();
+                if (get.filter.test(item)) {
+                    it.remove();
+                    itemRemoved(key, bucket);
+                    withdraw(get);
+                    get.asEvent().succeed(item);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Callback of a processed get: admit waiting puts into the freed room.
+     */
+    void admitPuts(Event getEvent) {
+        WaitQueue.Node<KeyedStorePut<T>> head;
+        while (size < capacity && (head = putWaiters.first()) != null) {
+            KeyedStorePut<T> put = head.item;
+            putWaiters.remove(head);
+            store(put);
+        }
+    }
+
+    private void store(KeyedStorePut<T> put) {
+        buckets.computeIfAbsent(keyOf.apply(put.item), k -> new ArrayDeque<>()).addLast(put.item);
+        size++;
+        put.asEvent().succeed(null);
+    }
+
+    /**
+     * Take an item for a new {@code get} right away. Items that older waiters will be served when
+     * their put is processed are left alone: buckets whose key has waiters, and items a waiting
+     * filter get matches.
+     *
+     * @return an item for {@code get} removed from the store, or {@code null} if none is free
+     */
+    private T take(KeyedStoreGet<K, T> get) {
+        if (get.keys != null) {
+            for (K key : get.keys) {
+                ArrayDeque<T> bucket = buckets.get(key);
+                if (bucket != null && !keyWaiters.containsKey(key)
+                        && !claimedByFilter(bucket.peekFirst())) {
+                    return removeFirst(key, bucket);
+                }
+            }
+            return null;
+        }
+        for (Map.Entry<K, ArrayDeque<T>> entry : buckets.entrySet()) {
+            if (keyWaiters.containsKey(entry.getKey())) continue;
+            for (Iterator<T> it = entry.getValue().iterator(); it.hasNext(); ) {
+                T item = it.next();
+                if (get.filter.test(item) && !claimedByFilter(item)) {
+                    it.remove();
+                    itemRemoved(entry.getKey(), entry.getValue());
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether a waiting filter get matches {@code item}
+     */
+    private boolean claimedByFilter(T item) {
+        WaitQueue.Node<KeyedStoreGet<K, T>> n = filterWaiters.first();
+        for (; n != null; n = filterWaiters.next(n)) {
+            if (n.item.filter.test(item)) return true;
+        }
+        return false;
+    }
+
+    private T removeFirst(K key, ArrayDeque<T> bucket) {
+        T item = bucket.pollFirst();
+        itemRemoved(key, bucket);
+        return item;
+    }
+
+    private void itemRemoved(K key, ArrayDeque<T> bucket) {
+        size--;
+        if (bucket.isEmpty()) buckets.remove(key);
+    }
+}
@@ -0,0 +1,60 @@
+package com.jsimul.collections;
+
+import com.jsimul.core.Event;
+import com.jsimul.core.SimEvent;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Get event for {@link KeyedStore}: waits for an item under one of its keys, or, as a fallback,
+ * for any item matching a filter.
+ *
+ * @param <K> the type of key
+ * @param <T> the type of item retrieved
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class KeyedStoreGet<K, T> implements SimEvent {
+
+    final KeyedStore<K, T> store;
+
+    /**
+     * Keys served, in preference order; {@code null} for a filter get.
+     */
+    final List<K> keys;
+
+    final Predicate<? super T> filter;
+
+    /**
+     * Arrival order across all waiters of the store, for FIFO between key and filter waiters.
+     */
+    final long order;
+
+    private final Event inner;
+
+    /**
+     * Nodes in the wait queue of each key (or the filter queue) while waiting.
+     */
+    WaitQueue.Node<KeyedStoreGet<K, T>>[] nodes;
+
+    KeyedStoreGet(KeyedStore<K, T> store, List<K> keys, Predicate<? super T> filter, long order) {
+        this.store = store;
+        this.keys = keys;
+        this.filter = filter;
+        this.order = order;
+        this.inner = new Event(store.env);
+        this.inner.addCallback(store::admitPuts);
+        store.onGet(this);
+    }
+
+    public void cancel() {
+        if (!inner.triggered()) store.withdraw(this);
+    }
+
+    @Override
+    public Event asEvent() {
+        return inner;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.jsimul.collections;
+
+import com.jsimul.core.Event;
+import com.jsimul.core.SimEvent;
+
+/**
+ * Put event for {@link KeyedStore} carrying an item.
+ *
+ * @param <T> the type of item
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class KeyedStorePut<T> implements SimEvent {
+
+    final KeyedStore<?, T> store;
+
+    final T item;
+
+    private final Event inner;
+
+    WaitQueue.Node<KeyedStorePut<T>> node;
+
+    KeyedStorePut(KeyedStore<?, T> store, T item) {
+        this.store = store;
+        this.item = item;
+        this.inner = new Event(store.env);
+        this.inner.addCallback(e -> store.serve(item));
+        store.onPut(this);
+    }
+
+    public void cancel() {
+        if (!inner.triggered()) store.withdraw(this);
+    }
+
+    @Override
+    public Event asEvent() {
+        return inner;
+    }
+
+}
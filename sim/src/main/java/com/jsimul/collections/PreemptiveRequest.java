@@ -2,6 +2,7 @@ package com.jsimul.collections;
 
 import com.jsimul.core.Event;
 import com.jsimul.core.SimEvent;
+import com.jsimul.core.Timeout;
 
 /**
  * Request event for {@link PreemptiveResource}.
@@ -18,6 +19,12 @@ public final class PreemptiveRequest implements SimEvent, Comparable<PreemptiveR
     private final Event inner;
     private volatile boolean preempted;
     private final double created;
+    // pending request timeout, cancelled once the request is granted or withdrawn
+    Timeout timer;
+    // position in the resource's waiting heap, -1 when not waiting
+    int waitIndex = -1;
+    // position in the resource's heap of users, -1 when not holding the resource
+    int userIndex = -1;
 
     PreemptiveRequest(PreemptiveResource resource, int priority, boolean preempt, long order) {
         this.resource = resource;
@@ -56,6 +63,13 @@ public final class PreemptiveRequest implements SimEvent, Comparable<PreemptiveR
         return created;
     }
 
+    void cancelTimer() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+
     @Override
     public int compareTo(PreemptiveRequest other) {
         int p = Integer.compare(this.priority, other.priority);
@@ -3,10 +3,7 @@ package com.jsimul.collections;
 import com.jsimul.core.Environment;
 import com.jsimul.core.Event;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
-import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -14,17 +11,46 @@ import java.util.concurrent.atomic.AtomicLong;
  *
  * <p>When capacity is full and a higher-priority request arrives, the running user with the
  * lowest priority is preempted and its request fails with a {@link Preempted} exception carrying
- * the new request as the cause.
+ * the new request as the cause. Waiters sit in an {@link IndexedHeap}, so a cancelled or
+ * timed-out request leaves the line in O(log n). Users sit in a second heap ordered worst
+ * first, so the preemption candidate is read in O(1) and replaced in O(log n).
  *
  * @author waiting
  * @date 2025/11/29
  */
 public final class PreemptiveResource {
 
+    private static final IndexedHeap.Positions<PreemptiveRequest> WAIT_INDEX = new IndexedHeap.Positions<>() {
+        @Override
+        public int get(PreemptiveRequest req) {
+            return req.waitIndex;
+        }
+
+        @Override
+        public void set(PreemptiveRequest req, int index) {
+            req.waitIndex = index;
+        }
+    };
+
+    private static final IndexedHeap.Positions<PreemptiveRequest> USER_INDEX = new IndexedHeap.Positions<>() {
+        @Override
+        public int get(PreemptiveRequest req) {
+            return req.userIndex;
+        }
+
+        @Override
+        public void set(PreemptiveRequest req, int index) {
+            req.userIndex = index;
+        }
+    };
+
     private final Environment env;
     private final int capacity;
-    private final List<PreemptiveRequest> users = new ArrayList<>();
-    private final PriorityQueue<PreemptiveRequest> waiters;
+    // max-heap: the root is the lowest-priority (latest among equals) user
+    private final IndexedHeap<PreemptiveRequest> users =
+            new IndexedHeap<>(Comparator.<PreemptiveRequest>naturalOrder().reversed(), USER_INDEX);
+    private final IndexedHeap<PreemptiveRequest> waiters =
+            new IndexedHeap<>(Comparator.naturalOrder(), WAIT_INDEX);
     private final AtomicLong order = new AtomicLong();
     private final AtomicLong grants = new AtomicLong();
     private final AtomicLong preemptions = new AtomicLong();
@@ -37,7 +63,6 @@ public final class PreemptiveResource {
         if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
         this.env = env;
         this.capacity = capacity;
-        this.waiters = new PriorityQueue<>();
         this.startTime = env.now();
         this.lastUpdate = startTime;
     }
@@ -91,8 +116,9 @@ public final class PreemptiveResource {
 
     public PreemptiveRequest request(int priority, boolean preempt, double timeout) {
         PreemptiveRequest req = request(priority, preempt);
-        if (timeout > 0) {
-            env.timeout(timeout).addCallback(ev -> {
+        if (timeout > 0 && !req.asEvent().triggered()) {
+            req.timer = env.timeout(timeout);
+            req.timer.addCallback(ev -> {
                 if (!req.asEvent().triggered()) {
                     cancelRequest(req);
                     req.asEvent().fail(new RequestTimeout("PreemptiveRequest timeout"));
@@ -125,6 +151,7 @@ public final class PreemptiveResource {
 
     void cancelRequest(PreemptiveRequest req) {
         waiters.remove(req);
+        req.cancelTimer();
     }
 
     void onRelease(PreemptiveRelease rel) {
@@ -142,7 +169,8 @@ public final class PreemptiveResource {
     private void grantFromQueue() {
         while (users.size() < capacity && !waiters.isEmpty()) {
             PreemptiveRequest next = waiters.poll();
-            if (next == null || next.asEvent().triggered()) continue;
+            // withdrawn requests have left the heap; this only guards against outside triggers
+            if (next.asEvent().triggered()) continue;
             grant(next);
         }
     }
@@ -151,13 +179,12 @@ public final class PreemptiveResource {
         totalWait += Math.max(0.0, env.now() - req.createdTime());
         users.add(req);
         grants.incrementAndGet();
+        req.cancelTimer();
         req.asEvent().succeed(null);
     }
 
     private PreemptiveRequest findWorstUser() {
-        return users.stream()
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+        return users.peek();
     }
 
     private void preempt(PreemptiveRequest victim, PreemptiveRequest intruder) {
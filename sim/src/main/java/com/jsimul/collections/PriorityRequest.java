@@ -2,6 +2,7 @@ package com.jsimul.collections;
 
 import com.jsimul.core.Event;
 import com.jsimul.core.SimEvent;
+import com.jsimul.core.Timeout;
 
 /**
  * Priority-based resource request event.
@@ -18,6 +19,10 @@ public final class PriorityRequest implements SimEvent, Comparable<PriorityReque
     final long order;
     private final Event inner;
     private final double created;
+    // pending request timeout, cancelled once the request is granted or withdrawn
+    Timeout timer;
+    // position in the resource's waiting heap, -1 when not waiting
+    int waitIndex = -1;
 
     PriorityRequest(PriorityResource resource, int priority, long order) {
         this.resource = resource;
@@ -52,4 +57,11 @@ public final class PriorityRequest implements SimEvent, Comparable<PriorityReque
     double createdTime() {
         return created;
     }
+
+    void cancelTimer() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
 }
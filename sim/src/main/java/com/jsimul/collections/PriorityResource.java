@@ -4,25 +4,38 @@ import com.jsimul.core.Environment;
 import com.jsimul.core.Event;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Resource that grants requests by priority (lower first), FIFO within same priority.
  *
  * <p>Preemption is not implemented here; higher-priority requests wait until
- * capacity is available.
+ * capacity is available. Waiters sit in an {@link IndexedHeap}, so a cancelled or timed-out
+ * request leaves the line in O(log n) instead of lingering until it reaches the head.
  *
  * @author waiting
  * @date 2025/11/29
  */
 public final class PriorityResource {
 
+    private static final IndexedHeap.Positions<PriorityRequest> WAIT_INDEX = new IndexedHeap.Positions<>() {
+        @Override
+        public int get(PriorityRequest req) {
+            return req.waitIndex;
+        }
+
+        @Override
+        public void set(PriorityRequest req, int index) {
+            req.waitIndex = index;
+        }
+    };
+
     private final Environment env;
     private final int capacity;
     private final List<PriorityRequest> users = new ArrayList<>();
-    private final PriorityQueue<PriorityRequest> waiters = new PriorityQueue<>();
+    private final IndexedHeap<PriorityRequest> waiters = new IndexedHeap<>(Comparator.naturalOrder(), WAIT_INDEX);
     private final AtomicLong order = new AtomicLong();
     private final AtomicLong granted = new AtomicLong();
     private double totalWait = 0.0;
@@ -79,8 +92,9 @@ public final class PriorityResource {
 
     public PriorityRequest request(int priority, double timeout) {
         PriorityRequest req = request(priority);
-        if (timeout > 0) {
-            env.timeout(timeout).addCallback(ev -> {
+        if (timeout > 0 && !req.asEvent().triggered()) {
+            req.timer = env.timeout(timeout);
+            req.timer.addCallback(ev -> {
                 if (!req.asEvent().triggered()) {
                     cancelRequest(req);
                     req.asEvent().fail(new RequestTimeout("PriorityRequest timeout"));
@@ -106,6 +120,7 @@ public final class PriorityResource {
 
     void cancelRequest(PriorityRequest req) {
         waiters.remove(req);
+        req.cancelTimer();
     }
 
     void onRelease(PriorityRelease release) {
@@ -122,10 +137,8 @@ public final class PriorityResource {
     private void grantAvailable() {
         while (users.size() < capacity && !waiters.isEmpty()) {
             PriorityRequest next = waiters.poll();
-            if (next == null) break;
-            if (next.asEvent().triggered()) {
-                continue;
-            }
+            // withdrawn requests have left the heap; this only guards against outside triggers
+            if (next.asEvent().triggered()) continue;
             grant(next);
         }
     }
@@ -134,6 +147,7 @@ public final class PriorityResource {
         totalWait += Math.max(0.0, env.now() - req.createdTime());
         users.add(req);
         granted.incrementAndGet();
+        req.cancelTimer();
         req.asEvent().succeed(null);
     }
 
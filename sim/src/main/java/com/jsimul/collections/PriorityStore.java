@@ -28,17 +28,15 @@ public class PriorityStore<T> {
                 env,
                 capacity,
                 (event, res) -> {
-                    if (heap.size() < res.capacity) {
-                        heap.add(event.item);
-                        event.asEvent().succeed(null);
-                    }
+                    if (heap.size() >= res.capacity) return false;
+                    heap.add(event.item);
+                    event.asEvent().succeed(null);
                     return true;
                 },
                 (event, res) -> {
-                    if (!heap.isEmpty()) {
-                        T v = heap.poll();
-                        event.asEvent().succeed(v);
-                    }
+                    if (heap.isEmpty()) return false;
+                    T v = heap.poll();
+                    event.asEvent().succeed(v);
                     return true;
                 }
         );
@@ -15,16 +15,18 @@ public class Put implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<Put> node;
+
     Put(BaseResource<Put, Get> resource) {
         this.resource = resource;
         this.inner = new Event(resource.env);
-        resource.putQueue.add(this);
+        this.node = resource.putQueue.add(this);
         this.inner.addCallback(resource::triggerGet);
         resource.triggerPut(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.putQueue.remove(this);
+        if (!inner.triggered()) resource.putQueue.remove(node);
     }
 
     @Override
@@ -17,17 +17,19 @@ public class PutEvent implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<PutEvent> node;
+
     PutEvent(BaseResource<PutEvent, GetEvent> resource, double amount) {
         this.resource = resource;
         this.amount = amount;
         this.inner = new Event(resource.env);
-        resource.putQueue.add(this);
+        this.node = resource.putQueue.add(this);
         this.inner.addCallback(resource::triggerGet);
         resource.triggerPut(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.putQueue.remove(this);
+        if (!inner.triggered()) resource.putQueue.remove(node);
     }
 
     @Override
@@ -17,17 +17,19 @@ public class Release implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<Release> node;
+
     Release(BaseResource<Request, Release> resource, Request request) {
         this.resource = resource;
         this.request = request;
         this.inner = new Event(resource.env);
-        resource.getQueue.add(this);
+        this.node = resource.getQueue.add(this);
         this.inner.addCallback(resource::triggerPut);
         resource.triggerGet(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.getQueue.remove(this);
+        if (!inner.triggered()) resource.getQueue.remove(node);
     }
 
     @Override
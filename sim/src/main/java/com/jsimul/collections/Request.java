@@ -15,16 +15,23 @@ public class Request implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<Request> node;
+
+    /**
+     * Index among the resource's holders while granted, {@code -1} otherwise.
+     */
+    int slot = -1;
+
     Request(BaseResource<Request, Release> resource) {
         this.resource = resource;
         this.inner = new Event(resource.env);
-        resource.putQueue.add(this);
+        this.node = resource.putQueue.add(this);
         this.inner.addCallback(resource::triggerGet);
         resource.triggerPut(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.putQueue.remove(this);
+        if (!inner.triggered()) resource.putQueue.remove(node);
     }
 
     @Override
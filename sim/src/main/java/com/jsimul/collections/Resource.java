@@ -1,14 +1,18 @@
 package com.jsimul.collections;
 
 import com.jsimul.core.Environment;
-import com.jsimul.core.SimEvent;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Simple capacity-based Resource supporting request/release semantics.
  *
+ * <p>Holders are kept in a dense array and each granted {@link Request} remembers its slot, so
+ * granting, releasing and checking membership are O(1) however large the capacity. A release
+ * moves the last holder into the freed slot, so holders are in no particular order.
+ *
  * @author waiting
  * @date 2025/10/29
  */
@@ -16,7 +20,29 @@ public class Resource {
 
     private final BaseResource<Request, Release> core;
 
-    public final List<SimEvent> users = new ArrayList<>();
+    private Request[] holders = new Request[8];
+
+    private int holderCount;
+
+    private final List<Request> users = new AbstractList<>() {
+        @Override
+        public Request get(int index) {
+            if (index < 0 || index >= holderCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + holderCount);
+            }
+            return holders[index];
+        }
+
+        @Override
+        public int size() {
+            return holderCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Request req && holds(req);
+        }
+    };
 
     public Resource(Environment env, int capacity) {
         if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
@@ -24,14 +50,14 @@ public class Resource {
                 env,
                 capacity,
                 (event, res) -> {
-                    if (users.size() < capacity) {
-                        users.add(event);
-                        event.asEvent().succeed(null);
-                    }
+                    // nobody queued behind a request that does not fit fits either
+                    if (holderCount >= capacity) return false;
+                    addHolder(event);
+                    event.asEvent().succeed(null);
                     return true;
                 },
                 (event, res) -> {
-                    users.remove(event.request);
+                    removeHolder(event.request);
                     event.asEvent().succeed(null);
                     return true;
                 }
@@ -39,7 +65,37 @@ public class Resource {
     }
 
     public int count() {
-        return users.size();
+        return holderCount;
+    }
+
+    /**
+     * @return read-only live view of the requests currently holding the resource
+     */
+    public List<Request> users() {
+        return users;
+    }
+
+    private boolean holds(Request req) {
+        int slot = req.slot;
+        return slot >= 0 && slot < holderCount && holders[slot] == req;
+    }
+
+    private void addHolder(Request req) {
+        if (holderCount == holders.length) {
+            holders = Arrays.copyOf(holders, holderCount << 1);
+        }
+        req.slot = holderCount;
+        holders[holderCount++] = req;
+    }
+
+    private void removeHolder(Request req) {
+        if (!holds(req)) return;
+        int slot = req.slot;
+        Request last = holders[--holderCount];
+        holders[slot] = last;
+        last.slot = slot;
+        holders[holderCount] = null;
+        req.slot = -1;
     }
 
     BaseResource<Request, Release> core() {
@@ -54,7 +110,7 @@ public class Resource {
         if (req == null) {
             throw new IllegalArgumentException("request cannot be null");
         }
-        if (!users.contains(req)) {
+        if (!holds(req)) {
             throw new IllegalArgumentException("request does not hold the resource");
         }
         return new Release(core, req);
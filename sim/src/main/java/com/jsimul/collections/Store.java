@@ -24,17 +24,16 @@ public class Store<T> {
                 env,
                 capacity,
                 (event, res) -> {
-                    if (items.size() < capacity) {
-                        items.add(event.item);
-                        event.asEvent().succeed(null);
-                    }
+                    // a full store blocks every queued put, an empty one every queued get
+                    if (items.size() >= capacity) return false;
+                    items.add(event.item);
+                    event.asEvent().succeed(null);
                     return true;
                 },
                 (event, res) -> {
-                    if (!items.isEmpty()) {
-                        T v = items.removeFirst();
-                        event.asEvent().succeed(v);
-                    }
+                    if (items.isEmpty()) return false;
+                    T v = items.removeFirst();
+                    event.asEvent().succeed(v);
                     return true;
                 }
         );
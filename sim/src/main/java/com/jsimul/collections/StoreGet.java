@@ -16,16 +16,18 @@ public class StoreGet<T> implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<StoreGet<T>> node;
+
     StoreGet(BaseResource<?, StoreGet<T>> resource) {
         this.resource = resource;
         this.inner = new Event(resource.env);
-        resource.getQueue.add(this);
+        this.node = resource.getQueue.add(this);
         this.inner.addCallback(resource::triggerPut);
         resource.triggerGet(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.getQueue.remove(this);
+        if (!inner.triggered()) resource.getQueue.remove(node);
     }
 
     @Override
@@ -18,17 +18,19 @@ public class StorePut<T> implements SimEvent {
 
     private final Event inner;
 
+    private final WaitQueue.Node<StorePut<T>> node;
+
     StorePut(BaseResource<StorePut<T>, ?> resource, T item) {
         this.resource = resource;
         this.item = item;
         this.inner = new Event(resource.env);
-        resource.putQueue.add(this);
+        this.node = resource.putQueue.add(this);
         this.inner.addCallback(resource::triggerGet);
         resource.triggerPut(null);
     }
 
     public void cancel() {
-        if (!inner.triggered()) resource.putQueue.remove(this);
+        if (!inner.triggered()) resource.putQueue.remove(node);
     }
 
     @Override
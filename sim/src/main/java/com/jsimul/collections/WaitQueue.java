@@ -0,0 +1,101 @@
+package com.jsimul.collections;
+
+/**
+ * FIFO of pending put or get events for {@link BaseResource}, kept as a doubly-linked list.
+ *
+ * <p>Each event holds on to the {@link Node} it was enqueued with, so appending, taking the
+ * head and withdrawing an arbitrary waiter (cancel, or completion in the middle of a scan) are
+ * all O(1) instead of shifting an array. A removed node drops its links, so a withdrawn event
+ * that is still referenced does not keep the waiters queued behind it reachable; a scan whose
+ * current node was unlinked underneath it resumes from the head.
+ *
+ * @param <E> the type of queued event
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class WaitQueue<E> {
+
+    static final class Node<E> {
+
+        E item;
+
+        Node<E> prev;
+
+        Node<E> next;
+
+        boolean removed;
+
+        private Node(E item) {
+            this.item = item;
+        }
+    }
+
+    private Node<E> head;
+
+    private Node<E> tail;
+
+    private int size;
+
+    synchronized Node<E> add(E item) {
+        Node<E> node = new Node<>(item);
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        return node;
+    }
+
+    /**
+     * Unlink {@code node}; no-op if it was already removed.
+     *
+     * @return whether the node was still queued
+     */
+    synchronized boolean remove(Node<E> node) {
+        if (node == null || node.removed) return false;
+        node.removed = true;
+        node.item = null;
+        Node<E> prev = node.prev;
+        Node<E> next = node.next;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        node.prev = null;
+        node.next = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return oldest queued node, or {@code null}
+     */
+    synchronized Node<E> first() {
+        return head;
+    }
+
+    /**
+     * @return the queued node following {@code node}, or {@code null} at the end; the head if
+     *         {@code node} has been removed meanwhile
+     */
+    synchronized Node<E> next(Node<E> node) {
+        return node.removed ? head : node.next;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+}
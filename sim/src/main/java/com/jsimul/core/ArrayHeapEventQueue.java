@@ -0,0 +1,220 @@
+package com.jsimul.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Allocation-free 4-ary heap future event list in struct-of-arrays layout.
+ *
+ * <p>Keys live in parallel primitive columns ({@code double time}, {@code int priority},
+ * {@code long id}) and each heap position holds an {@code int} index into a slot table of
+ * events. Sifting therefore moves only primitives, and once the columns have grown to the
+ * working-set size neither {@link #add} nor {@link #poll} allocates. This is the default queue
+ * of {@link Environment}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class ArrayHeapEventQueue implements EventQueue {
+
+    private static final int ARITY = 4;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double[] times;
+
+    private int[] priorities;
+
+    private long[] ids;
+
+    private int[] slots;
+
+    private Event[] events;
+
+    private int[] freeSlots;
+
+    private int freeCount;
+
+    private int size;
+
+    public ArrayHeapEventQueue() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ArrayHeapEventQueue(int initialCapacity) {
+        int cap = Math.max(ARITY, initialCapacity);
+        times = new double[cap];
+        priorities = new int[cap];
+        ids = new long[cap];
+        slots = new int[cap];
+        events = new Event[cap];
+        freeSlots = new int[cap];
+    }
+
+    @Override
+    public void add(double time, int priority, long id, Event event) {
+        if (size == times.length) {
+            grow();
+        }
+        // Slots below `size` that are not on the free list are in use; a fresh slot is `size`.
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : size;
+        events[slot] = event;
+        siftUp(size++, time, priority, id, slot);
+    }
+
+    /**
+     * Appends the batch and rebuilds the heap bottom-up in O(n) when the batch is at least as
+     * large as the queue; smaller batches are sifted in one by one.
+     */
+    @Override
+    public void addAll(double time, int priority, long firstId, List<? extends Event> batch) {
+        int k = batch.size();
+        if (k < size) {
+            for (int i = 0; i < k; i++) {
+                add(time, priority, firstId + i, batch.get(i));
+            }
+            return;
+        }
+        while (size + k > times.length) {
+            grow();
+        }
+        for (int i = 0; i < k; i++) {
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : size;
+            events[slot] = batch.get(i);
+            set(size++, time, priority, firstId + i, slot);
+        }
+        heapify();
+    }
+
+    @Override
+    public double peekTime() {
+        return size == 0 ? Environment.Infinity : times[0];
+    }
+
+    @Override
+    public boolean headBefore(double time, int priority, long id) {
+        return size > 0 && less(times[0], priorities[0], ids[0], time, priority, id);
+    }
+
+    @Override
+    public int peekPriority() {
+        return priorities[0];
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) return null;
+        int slot = slots[0];
+        Event head = events[slot];
+        events[slot] = null;
+        int last = --size;
+        if (last > 0) {
+            freeSlots[freeCount++] = slot;
+            siftDown(0, times[last], priorities[last], ids[last], slots[last]);
+        } else {
+            // queue drained: every slot is free again, so restart fresh numbering
+            freeCount = 0;
+        }
+        return head;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Filter the columns in place, then restore the heap bottom-up in O(n).
+     */
+    @Override
+    public int removeIf(Predicate<Event> filter) {
+        int kept = 0;
+        for (int pos = 0; pos < size; pos++) {
+            int slot = slots[pos];
+            if (filter.test(events[slot])) {
+                events[slot] = null;
+                freeSlots[freeCount++] = slot;
+            } else {
+                set(kept++, times[pos], priorities[pos], ids[pos], slot);
+            }
+        }
+        int removed = size - kept;
+        size = kept;
+        if (size == 0) {
+            freeCount = 0;
+        }
+        heapify();
+        return removed;
+    }
+
+    private void heapify() {
+        for (int pos = (size - 2) / ARITY; pos >= 0; pos--) {
+            siftDown(pos, times[pos], priorities[pos], ids[pos], slots[pos]);
+        }
+    }
+
+    private static boolean less(double t1, int p1, long i1, double t2, int p2, long i2) {
+        int c = Double.compare(t1, t2);
+        if (c != 0) return c < 0;
+        if (p1 != p2) return p1 < p2;
+        return i1 < i2;
+    }
+
+    private void siftUp(int pos, double time, int priority, long id, int slot) {
+        while (pos > 0) {
+            int parent = (pos - 1) / ARITY;
+            if (!less(time, priority, id, times[parent], priorities[parent], ids[parent])) {
+                break;
+            }
+            move(parent, pos);
+            pos = parent;
+        }
+        set(pos, time, priority, id, slot);
+    }
+
+    private void siftDown(int pos, double time, int priority, long id, int slot) {
+        while (true) {
+            int first = pos * ARITY + 1;
+            if (first >= size) break;
+            int best = first;
+            int end = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < end; c++) {
+                if (less(times[c], priorities[c], ids[c], times[best], priorities[best], ids[best])) {
+                    best = c;
+                }
+            }
+            if (!less(times[best], priorities[best], ids[best], time, priority, id)) {
+                break;
+            }
+            move(best, pos);
+            pos = best;
+        }
+        set(pos, time, priority, id, slot);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        priorities[to] = priorities[from];
+        ids[to] = ids[from];
+        slots[to] = slots[from];
+    }
+
+    private void set(int pos, double time, int priority, long id, int slot) {
+        times[pos] = time;
+        priorities[pos] = priority;
+        ids[pos] = id;
+        slots[pos] = slot;
+    }
+
+    private void grow() {
+        int cap = times.length << 1;
+        times = Arrays.copyOf(times, cap);
+        priorities = Arrays.copyOf(priorities, cap);
+        ids = Arrays.copyOf(ids, cap);
+        slots = Arrays.copyOf(slots, cap);
+        events = Arrays.copyOf(events, cap);
+        freeSlots = Arrays.copyOf(freeSlots, cap);
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.jsimul.core;
+
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Calendar queue (R. Brown, 1988) future event list with O(1) amortized insert and removal.
+ *
+ * <p>Time is split into buckets of a fixed width; bucket {@code k} of the "year" holds every
+ * entry whose virtual bucket number {@code floor(time / width)} is congruent to {@code k}. Each
+ * bucket is a list sorted by {@code (time, priority, id)}, so removal only inspects bucket heads
+ * and the exact {@link Scheduled} ordering is preserved. The bucket count doubles or halves with
+ * the population and the width is re-estimated from the gaps between the earliest entries on
+ * every resize.
+ *
+ * <p>Works best when event times are spread fairly evenly; a heap wins for small queues and for
+ * heavily clustered schedules. See {@code EventQueueBenchmark} for the crossover.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class CalendarEventQueue implements EventQueue {
+
+    private static final int MIN_BUCKETS = 16;
+
+    private static final int WIDTH_SAMPLE = 25;
+
+    private static final class Node {
+        final double time;
+        final int priority;
+        final long id;
+        final Event event;
+        long bucket;
+        Node next;
+
+        Node(double time, int priority, long id, Event event, long bucket) {
+            this.time = time;
+            this.priority = priority;
+            this.id = id;
+            this.event = event;
+            this.bucket = bucket;
+        }
+
+        boolean precedes(Node o) {
+            return precedes(o.time, o.priority, o.id);
+        }
+
+        boolean precedes(double t, int p, long i) {
+            int c = Double.compare(time, t);
+            if (c != 0) return c < 0;
+            if (priority != p) return priority < p;
+            return id < i;
+        }
+    }
+
+    private Node[] buckets;
+
+    private int mask;
+
+    private double width;
+
+    /**
+     * Virtual bucket being served. No pending entry lives in an earlier virtual bucket.
+     */
+    private long current;
+
+    private int size;
+
+    public CalendarEventQueue() {
+        this(1.0);
+    }
+
+    /**
+     * @param initialWidth starting bucket width in simulation time units; re-estimated on resize
+     */
+    public CalendarEventQueue(double initialWidth) {
+        if (!(initialWidth > 0) || Double.isInfinite(initialWidth)) {
+            throw new IllegalArgumentException("bucket width must be positive and finite");
+        }
+        this.width = initialWidth;
+        this.buckets = new Node[MIN_BUCKETS];
+        this.mask = MIN_BUCKETS - 1;
+    }
+
+    @Override
+    public void add(double time, int priority, long id, Event event) {
+        long bucket = bucketOf(time);
+        if (size == 0 || bucket < current) {
+            current = bucket;
+        }
+        insert(new Node(time, priority, id, event, bucket));
+        if (++size > 2 * buckets.length) {
+            resize(buckets.length * 2);
+        }
+    }
+
+    @Override
+    public double peekTime() {
+        if (size == 0) return Environment.Infinity;
+        return buckets[locate()].time;
+    }
+
+    @Override
+    public boolean headBefore(double time, int priority, long id) {
+        return size > 0 && buckets[locate()].precedes(time, priority, id);
+    }
+
+    @Override
+    public int peekPriority() {
+        return buckets[locate()].priority;
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) return null;
+        int idx = locate();
+        Node head = buckets[idx];
+        buckets[idx] = head.next;
+        head.next = null;
+        if (--size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+            resize(buckets.length / 2);
+        }
+        return head.event;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int removeIf(Predicate<Event> filter) {
+        int removed = 0;
+        for (int idx = 0; idx < buckets.length; idx++) {
+            Node prev = null;
+            for (Node n = buckets[idx]; n != null; n = n.next) {
+                if (!filter.test(n.event)) {
+                    prev = n;
+                } else if (prev == null) {
+                    buckets[idx] = n.next;
+                    removed++;
+                } else {
+                    prev.next = n.next;
+                    removed++;
+                }
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * @return current bucket width (exposed for tests and tuning)
+     */
+    public double bucketWidth() {
+        return width;
+    }
+
+    /**
+     * @return current number of buckets (exposed for tests and tuning)
+     */
+    public int bucketCount() {
+        return buckets.length;
+    }
+
+    private long bucketOf(double time) {
+        return (long) Math.floor(time / width);
+    }
+
+    private void insert(Node node) {
+        int idx = (int) (node.bucket & mask);
+        Node head = buckets[idx];
+        if (head == null || node.precedes(head)) {
+            node.next = head;
+            buckets[idx] = node;
+            return;
+        }
+        Node prev = head;
+        while (prev.next != null && prev.next.precedes(node)) {
+            prev = prev.next;
+        }
+        node.next = prev.next;
+        prev.next = node;
+    }
+
+    /**
+     * Advance {@link #current} to the bucket holding the minimum entry and return its index.
+     * Scans at most one year of buckets, then falls back to a direct search over bucket heads.
+     */
+    private int locate() {
+        for (int n = 0; n <= mask; n++) {
+            int idx = (int) (current & mask);
+            Node head = buckets[idx];
+            if (head != null && head.bucket == current) {
+                return idx;
+            }
+            current++;
+        }
+        Node best = null;
+        for (Node head : buckets) {
+            if (head != null && (best == null || head.precedes(best))) {
+                best = head;
+            }
+        }
+        current = best.bucket;
+        return (int) (current & mask);
+    }
+
+    private void resize(int newCount) {
+        Node[] old = buckets;
+        double estimate = estimateWidth(old);
+        if (estimate > 0 && !Double.isInfinite(estimate)) {
+            width = estimate;
+        }
+        buckets = new Node[newCount];
+        mask = newCount - 1;
+        boolean first = true;
+        for (Node head : old) {
+            Node n = head;
+            while (n != null) {
+                Node next = n.next;
+                n.next = null;
+                n.bucket = bucketOf(n.time);
+                if (first || n.bucket < current) {
+                    current = n.bucket;
+                    first = false;
+                }
+                insert(n);
+                n = next;
+            }
+        }
+    }
+
+    /**
+     * Brown's heuristic: three times the average gap between the earliest entries, ignoring gaps
+     * larger than twice the first average.
+     */
+    private double estimateWidth(Node[] table) {
+        int sample = Math.min(size, WIDTH_SAMPLE);
+        if (sample < 2) return -1;
+        // Bounded max-heap keeps the smallest `sample` times in O(n log sample).
+        PriorityQueue<Double> earliest = new PriorityQueue<>(sample, (a, b) -> Double.compare(b, a));
+        for (Node head : table) {
+            for (Node n = head; n != null; n = n.next) {
+                if (Double.isInfinite(n.time)) continue;
+                if (earliest.size() < sample) {
+                    earliest.add(n.time);
+                } else if (n.time < earliest.peek()) {
+                    earliest.poll();
+                    earliest.add(n.time);
+                }
+            }
+        }
+        int k = earliest.size();
+        if (k < 2) return -1;
+        double[] times = new double[k];
+        for (int i = k - 1; i >= 0; i--) {
+            times[i] = earliest.poll();
+        }
+        double avg = (times[k - 1] - times[0]) / (k - 1);
+        if (avg <= 0) return -1;
+        double sum = 0;
+        int used = 0;
+        for (int i = 1; i < k; i++) {
+            double gap = times[i] - times[i - 1];
+            if (gap <= 2 * avg) {
+                sum += gap;
+                used++;
+            }
+        }
+        double refined = used == 0 ? avg : sum / used;
+        return refined > 0 ? 3 * refined : 3 * avg;
+    }
+
+}
@@ -1,18 +1,32 @@
 package com.jsimul.core;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiPredicate;
 
 /**
  * Condition event triggered when evaluate(events,count) returns true (compositional form).
  *
+ * <p>Operands are deduplicated by identity while the condition is built, so construction is
+ * O(n). Each operand then carries its own callback and value flag: an operand completing
+ * costs one counter update plus the {@code evaluate} call. As in SimPy, the value is built when
+ * the condition's own event is processed: it holds the operands processed by then, including
+ * ones that completed at the same instant after the trigger, and is only materialized from the
+ * operands' flags when it is read. When its event is processed, the condition also detaches
+ * its callback from operands still outstanding, so later completions neither run a wasted check
+ * nor keep the condition reachable.
+ *
+ * <p>Final: the constructor registers the condition's callbacks on its operands and its own
+ * event, so a subclass would be reachable from them before its fields are initialized. New
+ * kinds of condition compose one through {@link ConditionCarrier}, like {@link QuorumOf}.
+ *
  * @author waiting
  * @date 2025/10/29
  */
-public class Condition implements ConditionCarrier {
+public final class Condition implements ConditionCarrier {
 
     public static boolean allEvents(List<Event> events, int count) {
         return events.size() == count;
@@ -22,116 +36,213 @@ public class Condition implements ConditionCarrier {
         return count > 0 || events.isEmpty();
     }
 
+    /**
+     * @return predicate that holds once {@code k} operands have completed
+     */
+    public static BiPredicate<List<Event>, Integer> kEvents(int k) {
+        return (events, count) -> count >= k;
+    }
+
+    /**
+     * One distinct operand; registered as the callback on its event.
+     */
+    private final class Operand implements Event.Callback {
+
+        final Event event;
+
+        /**
+         * Condition whose event this is, when the operand was passed as a nested condition.
+         */
+        Condition nested;
+
+        /**
+         * Whether the operand is part of the value: set for every operand whose event had been
+         * processed when this condition was processed, see {@link #buildValue}.
+         */
+        boolean done;
+
+        Operand(Event event) {
+            this.event = event;
+        }
+
+        @Override
+        public void call(Event e) {
+            check(this);
+        }
+    }
+
     private final Event inner;
 
     private final BiPredicate<List<Event>, Integer> evaluate;
 
-    private final List<Event> events = new ArrayList<>();
+    /**
+     * Distinct operands in first-seen order.
+     */
+    private final Operand[] operands;
 
-    private final Map<Event, Condition> nestedByEvent = new HashMap<>();
+    /**
+     * Fixed-size view of the operand events handed to {@link #evaluate}.
+     */
+    private final List<Event> events;
 
-    private final List<Condition> nestedConditions = new ArrayList<>();
+    /**
+     * Distinct nested conditions in first-seen order.
+     */
+    private final Condition[] nestedConditions;
 
     private int count;
 
+    /**
+     * Own operands (not nested conditions' events) in the value; set with the done flags.
+     */
+    private int completed;
+
     public Condition(Environment env, BiPredicate<List<Event>, Integer> evaluate, List<?> events) {
         this.inner = new Event(env);
         this.evaluate = evaluate;
-        absorb(events);
+        Map<Event, Operand> seen = new IdentityHashMap<>();
+        List<Operand> ops = new ArrayList<>(events.size());
+        List<Condition> nested = new ArrayList<>();
+        for (Object source : events) {
+            absorb(source, seen, ops, nested);
+        }
+        this.operands = ops.toArray(new Operand[0]);
+        this.nestedConditions = nested.toArray(new Condition[0]);
+        this.events = new AbstractList<>() {
+            @Override
+            public Event get(int index) {
+                return operands[index].event;
+            }
 
-        if (this.events.isEmpty()) {
+            @Override
+            public int size() {
+                return operands.length;
+            }
+        };
+
+        if (operands.length == 0) {
             inner.succeed(new ConditionValue());
             return;
         }
 
-        for (Event e : this.events) {
-            if (e.env() != env) {
+        for (Operand op : operands) {
+            if (op.event.env() != env) {
                 throw new IllegalArgumentException("Cannot mix events from different environments");
             }
         }
+        inner.addCallback(this::buildValue);
 
-        for (Event e : this.events) {
-            if (e.isProcessed()) {
-                check(e);
-            } else {
-                e.addCallback(this::check);
+        for (Operand op : operands) {
+            if (op.event.isProcessed()) {
+                check(op);
+            } else if (!inner.triggered()) {
+                op.event.addCallback(op);
             }
         }
-
-        this.inner.addCallback(this::buildValue);
+        if (count == 0 && evaluate.test(this.events, 0)) {
+            inner.succeed(new ConditionValue(this));
+        }
     }
 
-    private void absorb(List<?> input) {
-        for (Object source : input) {
-            toEvent(source);
-        }
+    /**
+     * @return number of distinct operands
+     */
+    int operandCount() {
+        return operands.length;
     }
 
-    private Event toEvent(Object source) {
+    private void absorb(Object source, Map<Event, Operand> seen, List<Operand> ops,
+                        List<Condition> nested) {
+        Condition condition = null;
+        Event event;
         if (source instanceof ConditionCarrier carrier) {
-            Condition condition = carrier.condition();
-            registerNested(condition);
-            Event event = condition.asEvent();
-            recordEvent(event, condition);
-            return event;
+            condition = carrier.condition();
+            event = condition.asEvent();
+        } else if (source instanceof Event e) {
+            event = e;
+        } else if (source instanceof SimEvent simEvent) {
+            event = simEvent.asEvent();
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + source);
         }
-        if (source instanceof Event event) {
-            recordEvent(event, null);
-            return event;
+        Operand op = seen.get(event);
+        if (op == null) {
+            op = new Operand(event);
+            seen.put(event, op);
+            ops.add(op);
         }
-        if (source instanceof SimEvent simEvent) {
-            Event event = simEvent.asEvent();
-            recordEvent(event, null);
-            return event;
+        // a condition and its event map one to one, so this registers each nested condition once
+        if (condition != null && condition != this && op.nested == null) {
+            op.nested = condition;
+            nested.add(condition);
         }
-        throw new IllegalArgumentException("Unsupported event type: " + source);
     }
 
-    private void recordEvent(Event event, Condition nested) {
-        if (!events.contains(event)) {
-            events.add(event);
-        }
-        if (nested != null) {
-            nestedByEvent.put(event, nested);
+    /**
+     * Put the values of own operands that were processed when this condition was processed into
+     * {@code into}, in operand order. Nested conditions are covered by the snapshot taken at the
+     * same time, see {@link #harvestNested()}.
+     */
+    void populate(Map<Event, Object> into) {
+        for (Operand op : operands) {
+            if (op.nested == null && op.done) {
+                into.put(op.event, op.event.value());
+            }
         }
     }
 
-    private void registerNested(Condition condition) {
-        if (condition == this) {
-            return;
-        }
-        if (!nestedConditions.contains(condition)) {
-            nestedConditions.add(condition);
+    /**
+     * @return number of own operands that contribute to the value, see {@link #populate}
+     */
+    int completedCount() {
+        return completed;
+    }
+
+    /**
+     * @return index of the first contributing operand at or after {@code from}, or {@code -1}
+     */
+    int nextCompleted(int from) {
+        for (int i = from; i < operands.length; i++) {
+            if (operands[i].nested == null && operands[i].done) return i;
         }
+        return -1;
     }
 
-    private void populateValue(ConditionValue cv) {
-        harvestValues(cv);
+    Event operandEvent(int index) {
+        return operands[index].event;
     }
 
-    private void harvestValues(ConditionValue cv) {
-        for (Event e : events) {
-            if (nestedByEvent.containsKey(e)) {
-                continue;
-            }
-            // Only collect values from processed events that have values
-            if (e.hasValue()) {
-                cv.add(e);
-            }
-        }
+    /**
+     * @return processed leaf events of the nested conditions, recursively and in order, or
+     *         {@code null} when there are none to look at
+     */
+    private Event[] harvestNested() {
+        if (nestedConditions.length == 0) return null;
+        List<Event> found = new ArrayList<>();
         for (Condition nested : nestedConditions) {
-            nested.harvestValues(cv);
+            nested.harvestProcessed(found);
         }
+        return found.toArray(new Event[0]);
     }
 
-    private void buildValue(Event event) {
-        // No-op now, handled in check()
+    private void harvestProcessed(List<Event> into) {
+        for (Operand op : operands) {
+            // Only collect values from processed events, like SimPy's _populate_value; a timeout,
+            // for example, carries its value from creation but has not happened until processed
+            if (op.nested == null && op.event.isProcessed()) {
+                into.add(op.event);
+            }
+        }
+        for (Condition nested : nestedConditions) {
+            nested.harvestProcessed(into);
+        }
     }
 
-    private void check(Event e) {
+    private void check(Operand op) {
         // If already triggered, no further checks are needed
         if (inner.triggered()) return;
         this.count += 1;
+        Event e = op.event;
         if (!e.ok()) {
             // Defuse the failing operand to prevent environment crash; mirror SimPy behavior.
             if (!e.isDefused()) {
@@ -142,9 +253,36 @@ public class Condition implements ConditionCarrier {
             return;
         }
         if (evaluate.test(events, count)) {
-            ConditionValue cv = new ConditionValue();
-            populateValue(cv);
-            inner.succeed(cv);
+            inner.succeed(new ConditionValue(this));
+        }
+    }
+
+    /**
+     * Callback of this condition's event: detach from outstanding operands and fix the value to
+     * the operands processed by now, so operands that completed at the trigger time but after
+     * the triggering one are included.
+     */
+    private void buildValue(Event event) {
+        detach();
+        if (!event.ok()) return;
+        completed = 0;
+        for (Operand op : operands) {
+            if (op.nested == null) {
+                op.done = op.event.isProcessed();
+                if (op.done) completed++;
+            }
+        }
+        ((ConditionValue) event.value()).build(harvestNested());
+    }
+
+    /**
+     * Remove the check callback from every operand that has not completed yet.
+     */
+    void detach() {
+        for (Operand op : operands) {
+            if (!op.event.isProcessed()) {
+                op.event.removeCallback(op);
+            }
         }
     }
 
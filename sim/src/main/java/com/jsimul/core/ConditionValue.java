@@ -1,58 +1,166 @@
 package com.jsimul.core;
 
+import java.util.AbstractMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
 
 /**
  * Value wrapper for Condition events providing event->value mapping.
  *
+ * <p>A value created by a {@link Condition} holds, as in SimPy, the operands whose events had
+ * been processed when the condition's own event was processed. That includes operands that
+ * completed at the same instant as, but after, the one that triggered the condition. Until the
+ * condition is processed the value reads as the operands fixed so far, which is none.
+ *
+ * <p>Such a value is a read-only view over the condition's operand array: size, iteration,
+ * equality and hashing walk the operands in the value, so a barrier pays nothing per trigger and
+ * nothing per read beyond the walk. Keyed lookups ({@link #get}, {@link #contains}) and
+ * {@link #toMap()} materialize an insertion-ordered map on first use after the condition was
+ * processed. Values that also carry nested conditions' events materialize immediately on first
+ * access, since those may repeat operands.
+ *
  * @author waiting
  * @date 2025/10/29
  */
 public class ConditionValue {
 
-    private final Map<Event, Object> values = new LinkedHashMap<>();
+    /**
+     * Event to value map; {@code null} while the value is still a view over {@link #source}.
+     */
+    private Map<Event, Object> values;
+
+    private Condition source;
+
+    private Event[] nestedEvents;
+
+    /**
+     * Whether {@link #source} has fixed its operands; until then reads are not cached.
+     */
+    private boolean built;
+
+    public ConditionValue() {
+        this.values = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param source condition whose completed operands make up the value
+     */
+    ConditionValue(Condition source) {
+        this.source = source;
+    }
 
-    void add(Event e) {
-        values.put(e, e.value());
+    /**
+     * Called when the source condition is processed and its operands are fixed.
+     *
+     * @param nestedEvents leaf events of nested conditions processed by then, or {@code null}
+     */
+    void build(Event[] nestedEvents) {
+        this.nestedEvents = nestedEvents;
+        this.built = true;
+    }
+
+    /**
+     * @return whether reads can walk {@link #source} directly instead of a map
+     */
+    private boolean isView() {
+        return values == null && nestedEvents == null;
+    }
+
+    private Map<Event, Object> map() {
+        Map<Event, Object> m = values;
+        if (m == null) {
+            m = new LinkedHashMap<>();
+            source.populate(m);
+            if (nestedEvents != null) {
+                for (Event e : nestedEvents) {
+                    m.put(e, e.value());
+                }
+            }
+            if (!built) return m;
+            values = m;
+            source = null;
+            nestedEvents = null;
+        }
+        return m;
     }
 
     public Map<Event, Object> toMap() {
-        return values;
+        return map();
+    }
+
+    /**
+     * @return number of event/value pairs
+     */
+    public int size() {
+        return isView() ? source.completedCount() : map().size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
     public boolean contains(Event e) {
-        return values.containsKey(e);
+        return map().containsKey(e);
     }
 
     public Object get(Event e) {
-        if (!values.containsKey(e)) {
+        Map<Event, Object> m = map();
+        if (!m.containsKey(e)) {
             throw new NoSuchElementException("Event not present in ConditionValue: " + e);
         }
-        return values.get(e);
+        return m.get(e);
     }
 
     /**
      * @return iterable over events in insertion order.
      */
     public Iterable<Event> events() {
-        return values.keySet();
+        return isView() ? () -> walk(source::operandEvent) : map().keySet();
     }
 
     /**
      * @return iterable over values in event insertion order.
      */
     public Iterable<Object> values() {
-        return values.values();
+        return isView() ? () -> walk(i -> source.operandEvent(i).value()) : map().values();
     }
 
     /**
      * @return iterable over event/value pairs in insertion order.
      */
     public Iterable<Map.Entry<Event, Object>> items() {
-        return values.entrySet();
+        if (!isView()) return map().entrySet();
+        return () -> walk(i -> {
+            Event e = source.operandEvent(i);
+            return new AbstractMap.SimpleImmutableEntry<>(e, e.value());
+        });
+    }
+
+    /**
+     * Iterate the source's completed operands, mapped by operand index.
+     */
+    private <T> Iterator<T> walk(IntFunction<T> at) {
+        Condition condition = source;
+        return new Iterator<>() {
+            private int next = condition.nextCompleted(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public T next() {
+                if (next < 0) throw new NoSuchElementException();
+                T item = at.apply(next);
+                next = condition.nextCompleted(next + 1);
+                return item;
+            }
+        };
     }
 
     /**
@@ -62,20 +170,42 @@ public class ConditionValue {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         return switch (obj) {
-            case ConditionValue other -> Objects.equals(this.values, other.values);
-            case Map<?, ?> map -> values.equals(map);
+            case ConditionValue other -> sameEntries(other.map());
+            case Map<?, ?> map -> sameEntries(map);
             case null, default -> false;
         };
     }
 
+    /**
+     * {@link Map#equals} against this value's pairs without materializing them.
+     */
+    private boolean sameEntries(Map<?, ?> map) {
+        if (!isView()) return map().equals(map);
+        if (map.size() != size()) return false;
+        for (Map.Entry<Event, Object> entry : items()) {
+            Object expected = map.get(entry.getKey());
+            if (!Objects.equals(expected, entry.getValue())
+                    || (expected == null && !map.containsKey(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(values);
+        if (!isView()) return Objects.hash(map());
+        // same as Objects.hash(map): 31 + the map's sum of entry hashes
+        int h = 0;
+        for (Map.Entry<Event, Object> entry : items()) {
+            h += entry.hashCode();
+        }
+        return 31 + h;
     }
 
     @Override
     public String toString() {
-        return "ConditionValue" + values;
+        return "ConditionValue" + map();
     }
 
 }
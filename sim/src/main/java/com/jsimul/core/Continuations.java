@@ -0,0 +1,100 @@
+package com.jsimul.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Thin access layer over the JDK's internal {@code jdk.internal.vm.Continuation}, the one-shot
+ * delimited continuation that virtual threads are built on. Used by {@link Process} to run
+ * process bodies directly on the event loop thread.
+ *
+ * <p>The class is not exported by {@code java.base}, so it is only usable when the JVM runs with
+ * {@code --add-exports java.base/jdk.internal.vm=ALL-UNNAMED}. Without it {@link #AVAILABLE} is
+ * false and callers fall back to threads.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class Continuations {
+
+    static final boolean AVAILABLE;
+
+    private static final MethodHandle CREATE;
+
+    private static final MethodHandle RUN;
+
+    private static final MethodHandle YIELD;
+
+
+    static {
+        MethodHandle create = null;
+        MethodHandle run = null;
+        MethodHandle yield = null;
+        boolean available = false;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> scopeType = Class.forName("jdk.internal.vm.ContinuationScope");
+            Class<?> type = Class.forName("jdk.internal.vm.Continuation");
+            Object scope = lookup.findConstructor(scopeType, MethodType.methodType(void.class, String.class))
+                    .invoke("jsimul-process");
+            create = MethodHandles.insertArguments(
+                            lookup.findConstructor(type, MethodType.methodType(void.class, scopeType, Runnable.class)),
+                            0, scope)
+                    .asType(MethodType.methodType(Object.class, Runnable.class));
+            run = lookup.findVirtual(type, "run", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            yield = MethodHandles.insertArguments(
+                    lookup.findStatic(type, "yield", MethodType.methodType(boolean.class, scopeType)), 0, scope);
+            available = true;
+        } catch (Throwable t) {
+            // not exported (or not supported by this JVM): Process keeps using threads
+        }
+        AVAILABLE = available;
+        CREATE = create;
+        RUN = run;
+        YIELD = yield;
+    }
+
+    private Continuations() {
+    }
+
+    static Object create(Runnable body) {
+        try {
+            return (Object) CREATE.invokeExact(body);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Run (or resume) the continuation on the current thread until it yields or completes.
+     */
+    static void run(Object continuation) {
+        try {
+            RUN.invokeExact(continuation);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Suspend the continuation currently running on this thread, returning from {@link #run}.
+     *
+     * @throws IllegalStateException if the continuation is pinned, e.g. inside synchronized code
+     */
+    static void yieldNow() {
+        try {
+            boolean ignored = (boolean) YIELD.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error err) throw err;
+        return new IllegalStateException(t);
+    }
+
+}
@@ -1,10 +1,15 @@
 package com.jsimul.core;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
 
 /**
  * Execution environment for an event-based simulation, modeled after SimPy's Environment.
@@ -12,49 +17,458 @@ import java.util.concurrent.atomic.AtomicLong;
  * <p>Time advances by stepping through scheduled events. Events are scheduled with a time and
  * priority, and processed in order. Failed events will crash the environment unless defused.
  *
+ * <p>Pending events live in a pluggable {@link EventQueue}; the allocation-free
+ * {@link ArrayHeapEventQueue} is used by default, {@link CalendarEventQueue} can be supplied
+ * for very large future event lists and a {@link TimingWheelEventQueue} can front either for
+ * timeout-heavy models. Events scheduled with zero delay at {@link Event#URGENT} or
+ * {@link Event#NORMAL} priority bypass the queue and go to two FIFO lanes for the current time;
+ * they are merged back with the queue head by {@code (time, priority, id)}, so processing order
+ * is unchanged.
+ *
+ * <p>Threads that do not hold the process baton (neither the thread running the loop nor the
+ * process it has resumed) do not touch the schedule while a run is in progress: their
+ * {@link #schedule} calls go to a lock-free inbox that the loop drains before it takes each
+ * event, and only then are sequence numbers assigned. Same-time events therefore interleave
+ * the same way in every run for the same arrival order, however the threads race for a lock.
+ *
+ * <p>Use {@link #builder()} for non-default configurations, such as running process bodies as
+ * continuations on the event loop thread, a bounded {@link ProcessExecutor} or a thread-confined
+ * environment without locks. {@link #close()} unwinds process threads still suspended once the
+ * environment is no longer needed.
+ *
  * @author waiting
  * @date 2025/10/29
  */
-public class Environment implements BaseEnvironment {
+public class Environment implements BaseEnvironment, AutoCloseable {
 
     public static final double Infinity = Double.POSITIVE_INFINITY;
 
-    private volatile double now;
+    /**
+     * Compact the queue once this many cancelled entries make up more than half of it.
+     */
+    private static final int COMPACT_MIN_TOMBSTONES = 64;
+
+    /**
+     * Most events drained from the schedule in one critical section.
+     */
+    private static final int BATCH_CAPACITY = 64;
+
+    /**
+     * Spin iterations {@link #awaitScheduled} tries before parking.
+     */
+    private static final int IDLE_SPINS = 1 << 10;
+
+    private static final VarHandle NOW;
+
+    static {
+        try {
+            NOW = MethodHandles.lookup().findVarHandle(Environment.class, "now", double.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Current time in queue units (simulated time, or ticks for a {@link TickEnvironment});
+     * accessed with volatile semantics through {@link #NOW} unless thread-confined.
+     */
+    private double now;
+
+    private final EventQueue queue;
 
-    private final PriorityQueue<Scheduled> queue;
-    
+    private final EventRing urgentLane = new EventRing();
+
+    private final EventRing normalLane = new EventRing();
+
+    /**
+     * Guards the queue, the lanes and {@link #nextId}; not used when thread-confined.
+     */
     private final Object queueLock = new Object();
 
-    private final AtomicLong eid;
+    /**
+     * Time of the entry most recently returned by {@link #pollNext()}; only the loop polls.
+     */
+    private double polledTime;
 
-    private final AtomicInteger pendingAsync = new AtomicInteger(0);
+    /**
+     * Priority of the entry most recently returned by {@link #pollHead()}.
+     */
+    private int polledPriority;
+
+    /**
+     * Events sharing {@link #batchTime} and {@link #batchPriority} that were drained together
+     * with the previous event, so the loop can take them without locking. Entries not in the
+     * batch with the same time and priority have larger ids and follow the whole batch.
+     */
+    private final Event[] batch = new Event[BATCH_CAPACITY];
+
+    private int batchPos;
+
+    private int batchSize;
+
+    private double batchTime;
+
+    /**
+     * Priority of the pending batch; {@link Integer#MIN_VALUE} when there is none.
+     */
+    private int batchPriority = Integer.MIN_VALUE;
+
+    /**
+     * Set under queueLock when a zero-delay event ordering before the rest of the batch was
+     * scheduled; volatile so the loop can hand out batch entries without taking the lock.
+     */
+    private volatile boolean batchBroken;
+
+    /**
+     * Cancelled batch entries dropped without queueLock, folded into {@link #tombstones} the next
+     * time the loop takes the lock. Only touched by the thread running the loop.
+     */
+    private int droppedOutsideLock;
+
+    private long nextId;
+
+    /**
+     * Cancelled events not yet dropped; a heuristic count that drives compaction.
+     */
+    private int tombstones;
 
     private Process activeProcess;
 
+    private final boolean continuations;
+
+    private final ProcessExecutor processExecutor;
+
+    /**
+     * {@link #processExecutor} when it runs bodies on threads; {@code null} in continuation mode.
+     */
+    private final ProcessExecutor.Threads processThreads;
+
+    /**
+     * Processes whose body currently occupies a thread of {@link #processExecutor}.
+     */
+    private final Set<Process> liveProcesses = ConcurrentHashMap.newKeySet();
+
+    private final boolean confined;
+
+    private final boolean verifyConfinement;
+
+    /**
+     * Thread holding the process baton while a run is in progress; it follows the baton from
+     * the loop to each resumed process and back. A confinement-verified environment keeps its
+     * first user as owner between runs.
+     */
+    private volatile Thread owner;
+
+    /**
+     * Schedule requests from threads other than {@link #owner}; not used when thread-confined.
+     */
+    private final ScheduleInbox inbox = new ScheduleInbox();
+
+    private final ScheduleInbox.Sink inboxSink = this::enqueue;
+
+    /**
+     * Thread waiting for something to be scheduled, unparked by the next schedule call.
+     */
+    private volatile Thread idleWaiter;
+
     public Environment() {
         this(0.0);
     }
 
     public Environment(double initialTime) {
-        this.now = initialTime;
-        this.queue = new PriorityQueue<>();
-        this.eid = new AtomicLong();
+        this(initialTime, new ArrayHeapEventQueue());
     }
 
-    public void incPending() {
-        pendingAsync.incrementAndGet();
+    /**
+     * @param initialTime starting simulation time
+     * @param queue       empty future event list implementation to schedule into
+     */
+    public Environment(double initialTime, EventQueue queue) {
+        this(builder().initialTime(initialTime).eventQueue(queue));
     }
 
-    public void decPending() {
-        pendingAsync.decrementAndGet();
-        synchronized (queueLock) {
-            queueLock.notifyAll();
+    Environment(Builder builder) {
+        EventQueue queue = builder.eventQueue;
+        if (queue == null || !queue.isEmpty()) {
+            throw new IllegalArgumentException("queue must be non-null and empty");
+        }
+        if (builder.wheelTickWidth > 0) {
+            // the wheel buckets queue times, which a tick clock keeps in ticks
+            double width = builder.tickResolution > 0
+                    ? builder.wheelTickWidth / builder.tickResolution
+                    : builder.wheelTickWidth;
+            queue = new TimingWheelEventQueue(width, TimingWheelEventQueue.DEFAULT_LEVELS, queue);
+        }
+        // a tick clock counts whole ticks, which doubles hold exactly up to 2^53
+        this.now = builder.tickResolution > 0
+                ? Math.rint(builder.initialTime / builder.tickResolution)
+                : builder.initialTime;
+        this.queue = queue;
+        ProcessExecutor executor = builder.processExecutor;
+        if (executor == null || (executor.runsOnCaller() && !Continuations.AVAILABLE)) {
+            executor = ProcessExecutor.virtualThreads();
+        }
+        this.processExecutor = executor;
+        this.processThreads = executor instanceof ProcessExecutor.Threads threads ? threads : null;
+        this.continuations = processThreads == null;
+        this.confined = builder.threadConfined || builder.verifyConfinement;
+        this.verifyConfinement = builder.verifyConfinement;
+    }
+
+    /**
+     * @return a builder for environments with non-default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link Environment}. Unset options keep the defaults of {@code new Environment()}.
+     */
+    public static final class Builder {
+
+        private double initialTime;
+
+        private EventQueue eventQueue = new ArrayHeapEventQueue();
+
+        private double wheelTickWidth;
+
+        private double tickResolution;
+
+        private ProcessExecutor processExecutor;
+
+        private boolean threadConfined;
+
+        private boolean verifyConfinement;
+
+        private Builder() {
+        }
+
+        public Builder initialTime(double initialTime) {
+            this.initialTime = initialTime;
+            return this;
+        }
+
+        /**
+         * @param eventQueue empty future event list implementation to schedule into
+         */
+        public Builder eventQueue(EventQueue eventQueue) {
+            this.eventQueue = eventQueue;
+            return this;
+        }
+
+        /**
+         * Put a {@link TimingWheelEventQueue} with the given tick width in front of the event
+         * queue, so near-term timeouts are bucketed in O(1) and only reach the queue when due.
+         * The width is in simulated time like every other builder input, also when
+         * {@link #tickResolution(double)} is set.
+         */
+        public Builder timingWheel(double tickWidth) {
+            if (!(tickWidth > 0) || Double.isInfinite(tickWidth)) {
+                throw new IllegalArgumentException(
+                        "tickWidth must be positive and finite: " + tickWidth);
+            }
+            this.wheelTickWidth = tickWidth;
+            return this;
+        }
+
+        /**
+         * Run {@link Process.ProcessFunction} bodies as continuations on the event loop thread,
+         * so awaiting and resuming need no thread hand-off. Requires the JVM option
+         * {@code --add-exports java.base/jdk.internal.vm=ALL-UNNAMED}; without it the environment
+         * silently keeps using threads (see {@link Environment#usesContinuations()}). An await
+         * inside a {@code synchronized} block fails the process in this mode because the
+         * continuation is pinned. Same as {@code processExecutor(ProcessExecutor.callerThread())};
+         * {@code false} restores the default of a virtual thread per process.
+         */
+        public Builder continuations(boolean continuations) {
+            if (continuations) {
+                this.processExecutor = ProcessExecutor.callerThread();
+            } else if (processExecutor != null && processExecutor.runsOnCaller()) {
+                this.processExecutor = null;
+            }
+            return this;
+        }
+
+        /**
+         * @param processExecutor where process bodies run; owned and shut down by the
+         *                        environment, so use a fresh instance per environment
+         */
+        public Builder processExecutor(ProcessExecutor processExecutor) {
+            this.processExecutor = processExecutor;
+            return this;
+        }
+
+        /**
+         * Confine the environment to a single logical thread of control: the thread running
+         * it plus process bodies holding the baton. Scheduling and event callbacks then skip
+         * their monitors and the clock is read without memory fences. Events must not be
+         * triggered or scheduled from other threads, e.g. from outside a realtime run.
+         */
+        public Builder threadConfined(boolean threadConfined) {
+            this.threadConfined = threadConfined;
+            return this;
+        }
+
+        /**
+         * Debug aid that implies {@link #threadConfined(boolean)}: fail fast with an
+         * {@link IllegalStateException} when a thread that does not hold the baton schedules an
+         * event, steps the environment or registers callbacks.
+         */
+        public Builder verifyConfinement(boolean verifyConfinement) {
+            this.verifyConfinement = verifyConfinement;
+            return this;
+        }
+
+        /**
+         * Keep the clock as an integer count of ticks of the given resolution, see
+         * {@link TickEnvironment}; {@link #build()} then returns a {@code TickEnvironment}.
+         */
+        public Builder tickResolution(double resolution) {
+            if (!(resolution > 0) || Double.isInfinite(resolution)) {
+                throw new IllegalArgumentException(
+                        "resolution must be positive and finite: " + resolution);
+            }
+            this.tickResolution = resolution;
+            return this;
+        }
+
+        double tickResolution() {
+            return tickResolution;
+        }
+
+        public Environment build() {
+            return tickResolution > 0 ? new TickEnvironment(this) : new Environment(this);
+        }
+    }
+
+    /**
+     * @return whether this environment is confined to one thread of control and skips locking
+     */
+    public boolean isThreadConfined() {
+        return confined;
+    }
+
+    /**
+     * Fails if confinement is verified and the calling thread does not hold the baton. The first
+     * thread to use the environment becomes its owner.
+     */
+    void checkConfinement() {
+        if (!verifyConfinement) return;
+        Thread current = Thread.currentThread();
+        if (owner == null) {
+            owner = current;
+        } else if (owner != current) {
+            throw new IllegalStateException("Thread-confined environment used from " + current
+                    + " while owned by " + owner);
+        }
+    }
+
+    /**
+     * Pass ownership along with the process baton.
+     */
+    void transferOwnership(Thread thread) {
+        owner = thread;
+    }
+
+    /**
+     * Make the calling thread the baton holder for a run it drives.
+     *
+     * @return previous owner, to be restored with {@link #transferOwnership} when the run ends
+     */
+    Thread claimOwnership() {
+        Thread previous = owner;
+        owner = Thread.currentThread();
+        return previous;
+    }
+
+    /**
+     * @return whether the calling thread must leave scheduling to the loop, see {@link #inbox}
+     */
+    private boolean isForeignThread() {
+        Thread holder = owner;
+        return holder != null && holder != Thread.currentThread();
+    }
+
+    /**
+     * @return whether process bodies run as continuations on the event loop thread
+     */
+    public boolean usesContinuations() {
+        return continuations;
+    }
+
+    /**
+     * @return strategy running process bodies
+     */
+    public ProcessExecutor processExecutor() {
+        return processExecutor;
+    }
+
+    /**
+     * @return number of process bodies currently occupying a thread, suspended or not
+     */
+    public int liveProcessThreads() {
+        return liveProcesses.size();
+    }
+
+    /**
+     * Start {@code body} of {@code process} on a thread of the process executor.
+     *
+     * @throws RejectedExecutionException when the executor's thread limit is reached
+     */
+    void startProcessThread(Process process, Runnable body) {
+        if (liveProcesses.size() >= processExecutor.maxThreads()) {
+            throw new RejectedExecutionException("Process thread limit reached ("
+                    + processExecutor.maxThreads() + " live) starting " + process);
+        }
+        liveProcesses.add(process);
+        try {
+            processThreads.start(body);
+        } catch (RuntimeException e) {
+            liveProcesses.remove(process);
+            throw e;
+        }
+    }
+
+    /**
+     * Called by a process body on its own thread just before it gives up the baton for good.
+     */
+    void processThreadFinished(Process process) {
+        liveProcesses.remove(process);
+    }
+
+    /**
+     * Unwind every process body still suspended in an await, running its {@code finally} blocks
+     * without resuming the simulation, and shut down the process executor. Call once the
+     * environment is no longer run; suspended processes would otherwise keep their threads (and
+     * everything they reference) alive for the lifetime of the JVM.
+     *
+     * @throws IllegalStateException if a body kept running instead of unwinding, e.g. one that
+     *                               catches the termination and then loops without awaiting
+     */
+    @Override
+    public void close() {
+        List<Process> stuck = new ArrayList<>();
+        for (Process process : liveProcesses.toArray(new Process[0])) {
+            if (!process.terminate()) stuck.add(process);
+        }
+        processExecutor.shutdown();
+        if (!stuck.isEmpty()) {
+            throw new IllegalStateException("Process bodies did not exit on close: " + stuck);
         }
     }
 
     @Override
     public double now() {
-        return now;
+        return clock();
+    }
+
+    /**
+     * @return current time in queue units, which differ from {@link #now()} only in a
+     *         {@link TickEnvironment}
+     */
+    final double clock() {
+        return confined ? now : (double) NOW.getVolatile(this);
     }
 
     @Override
@@ -68,13 +482,164 @@ public class Environment implements BaseEnvironment {
 
     @Override
     public void schedule(Event event, int priority, double delay) {
-        double time = now + delay;
+        scheduleIn(event, priority, delay);
+    }
+
+    /**
+     * Schedule with a delay in queue units, see {@link #clock()}.
+     */
+    final void scheduleIn(Event event, int priority, double delay) {
+        if (confined) {
+            checkConfinement();
+            enqueue(event, priority, delay);
+            return;
+        }
+        if (isForeignThread()) {
+            inbox.offer(event, priority, delay);
+        } else {
+            synchronized (queueLock) {
+                enqueue(event, priority, delay);
+            }
+        }
+        wakeIdleWaiter();
+    }
+
+    /**
+     * Schedule several events with the same priority and delay under a single lock acquisition.
+     * They are processed in list order, exactly as if scheduled one by one; the queue may insert
+     * them in bulk (see {@link EventQueue#addAll}).
+     */
+    public void scheduleAll(List<? extends Event> events, int priority, double delay) {
+        scheduleAllIn(events, priority, delay);
+    }
+
+    /**
+     * {@link #scheduleAll} with a delay in queue units, see {@link #clock()}.
+     */
+    final void scheduleAllIn(List<? extends Event> events, int priority, double delay) {
+        if (confined) {
+            checkConfinement();
+            enqueueAll(events, priority, delay);
+            return;
+        }
+        if (isForeignThread()) {
+            for (int i = 0; i < events.size(); i++) {
+                inbox.offer(events.get(i), priority, delay);
+            }
+        } else {
+            synchronized (queueLock) {
+                enqueueAll(events, priority, delay);
+            }
+        }
+        wakeIdleWaiter();
+    }
+
+    private void wakeIdleWaiter() {
+        Thread waiter = idleWaiter;
+        if (waiter != null) LockSupport.unpark(waiter);
+    }
+
+    /**
+     * Register the calling thread to be unparked by the next schedule call, e.g. while it sleeps
+     * until an event is due. Not supported when thread-confined, where nothing else schedules.
+     */
+    void beginIdle() {
+        idleWaiter = Thread.currentThread();
+    }
+
+    void endIdle() {
+        idleWaiter = null;
+    }
+
+    /**
+     * Wait until an event is scheduled or {@code done} holds: spin briefly for a wake-up latency
+     * of microseconds, then park until a schedule call unparks the thread, using no CPU while
+     * idle. Publishing the waiter before re-checking the schedule, and scheduling before
+     * reading the waiter, means either side sees the other and no wake-up is lost.
+     */
+    void awaitScheduled(BooleanSupplier done) {
+        int spins = 0;
+        while (peek() == Infinity && !done.getAsBoolean()) {
+            if (spins++ < IDLE_SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            beginIdle();
+            try {
+                if (peek() == Infinity && !done.getAsBoolean()) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                endIdle();
+            }
+            if (Thread.interrupted()) {
+                throw new RuntimeException("Interrupted during simulation run");
+            }
+        }
+    }
+
+    private void enqueueAll(List<? extends Event> events, int priority, double delay) {
+        if (delay == 0 && (priority == Event.NORMAL || priority == Event.URGENT)) {
+            for (int i = 0; i < events.size(); i++) {
+                enqueue(events.get(i), priority, delay);
+            }
+            return;
+        }
+        long firstId = nextId + 1;
+        nextId += events.size();
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).markQueued();
+        }
+        queue.addAll(clock() + delay, priority, firstId, events);
+        if (delay == 0 && priority < batchPriority) batchBroken = true;
+    }
+
+    private void enqueue(Event event, int priority, double delay) {
+        if (delay == 0 && priority < batchPriority) batchBroken = true;
+        event.markQueued();
+        long id = ++nextId;
+        if (delay == 0 && priority == Event.NORMAL) {
+            normalLane.add(id, event);
+        } else if (delay == 0 && priority == Event.URGENT) {
+            urgentLane.add(id, event);
+        } else {
+            queue.add(clock() + delay, priority, id, event);
+        }
+    }
+
+    /**
+     * Cancel a scheduled event: it stays in the schedule as a tombstone and is dropped without
+     * running its callbacks or advancing the clock when it comes due. O(1); the queue is
+     * compacted once tombstones make up most of it. A process awaiting a cancelled event is never
+     * resumed by it. Events that were never scheduled are left alone, so they can still be
+     * triggered later.
+     *
+     * @return whether the event was cancelled, {@code false} if not scheduled, already processed
+     *         or already cancelled
+     */
+    public boolean cancel(Event event) {
+        if (confined) {
+            checkConfinement();
+            return tombstone(event);
+        }
         synchronized (queueLock) {
-            queue.add(new Scheduled(time, priority, eid.incrementAndGet(), event));
-            queueLock.notifyAll();
+            return tombstone(event);
         }
     }
 
+    private boolean tombstone(Event event) {
+        // a request from another thread may still be waiting in the inbox
+        if (!confined) drainInbox();
+        if (!event.isQueued() || event.isProcessed() || event.isCancelled()) return false;
+        event.markCancelled();
+        if (++tombstones >= COMPACT_MIN_TOMBSTONES && tombstones > queue.size() / 2) {
+            queue.removeIf(Event::isCancelled);
+            // whatever the queue could not remove (or sits in a lane) is still skipped on poll
+            tombstones = 0;
+        }
+        return true;
+    }
+
     /**
      * Create and start a {@link Process} using the supplied function. Matches
      * the ergonomics of SimPy's {@code env.process(generator)} helper so that
@@ -99,6 +664,28 @@ public class Environment implements BaseEnvironment {
         return new Process(this, function, name);
     }
 
+    /**
+     * Create and start a threadless {@link Process} whose logic is a chain of
+     * {@link Process.Step}s running on the event loop thread.
+     *
+     * @param first first step, invoked with a null value when the process starts
+     * @return newly created process instance
+     */
+    public Process process(Process.Step first) {
+        return new Process(this, first);
+    }
+
+    /**
+     * Create and start a named threadless {@link Process}.
+     *
+     * @param first first step, invoked with a null value when the process starts
+     * @param name  name of the process
+     * @return newly created process instance
+     */
+    public Process process(Process.Step first, String name) {
+        return new Process(this, first, name);
+    }
+
     /**
      * Create a {@link Timeout} that fires after the given delay.
      */
@@ -129,6 +716,13 @@ public class Environment implements BaseEnvironment {
         return new AllOf(this, normalizeArgs(events));
     }
 
+    /**
+     * Create a {@link QuorumOf} event that succeeds once {@code k} of the operands have.
+     */
+    public SimEvent kOf(int k, Object... events) {
+        return new QuorumOf(this, k, normalizeArgs(events));
+    }
+
     /**
      * Create an {@link AnyOf} compositional event for the provided operands.
      */
@@ -159,18 +753,27 @@ public class Environment implements BaseEnvironment {
     }
 
     public double peek() {
+        if (confined) return peekUnlocked();
         synchronized (queueLock) {
-            Scheduled head = queue.peek();
-            return head == null ? Infinity : head.time();
+            drainInbox();
+            return peekUnlocked();
         }
     }
 
+    private double peekUnlocked() {
+        double head = queue.peekTime();
+        return lanesEmpty() && batchPos == batchSize ? head : Math.min(clock(), head);
+    }
+
     /**
-     * @return number of events currently scheduled (for observability/testing).
+     * @return number of events currently scheduled, including cancelled ones not yet dropped
+     *         (for observability/testing).
      */
     public int scheduledCount() {
+        if (confined) return queue.size() + urgentLane.size() + normalLane.size();
         synchronized (queueLock) {
-            return queue.size();
+            drainInbox();
+            return queue.size() + urgentLane.size() + normalLane.size() + batchSize - batchPos;
         }
     }
 
@@ -180,12 +783,9 @@ public class Environment implements BaseEnvironment {
      */
     @Override
     public void step() {
-        Scheduled s;
-        synchronized (queueLock) {
-            s = queue.poll();
-        }
-        if (s == null) throw new EmptySchedule();
-        processEvent(s);
+        Event event = next();
+        if (event == null) throw new EmptySchedule();
+        processEvent(polledTime, event);
     }
 
     @Override
@@ -226,6 +826,7 @@ public class Environment implements BaseEnvironment {
      * Run until the given absolute time is reached.
      */
     public Object run(double untilTime) {
+        double now = now();
         if (untilTime <= now) throw new IllegalArgumentException("until must be > now");
         // Use a Timeout event to ensure time advances
         Timeout t = timeout(untilTime - now);
@@ -236,85 +837,206 @@ public class Environment implements BaseEnvironment {
 
     /**
      * Core run loop shared by all run overloads.
+     *
+     * <p>Process bodies never run concurrently with this loop: a resume callback hands the baton
+     * to the process thread and parks until the process awaits again or finishes, so by the time
+     * {@link #processEvent} returns everything it caused has been scheduled. An empty schedule
+     * therefore really means the simulation is over and no polling is needed.
+     *
+     * <p>The loop always runs on the calling thread, so thread locals, ownership checks and
+     * callbacks see the caller. Hand-offs to process threads are cheapest when {@code run} is
+     * itself called from a virtual thread, where they are continuation switches on the carrier
+     * rather than OS-level wake-ups.
      */
     private Object runInternal(Event untilEvent) {
-        while ( true ) {
-            try {
-                // Optimized wait logic: check conditions before blocking
-                if (untilEvent != null && untilEvent.isProcessed()) {
-                     return untilEvent.value(); // fast path exit
-                }
-                
-                Scheduled s;
-                synchronized (queueLock) {
-                    while (queue.isEmpty() || pendingAsync.get() > 0) {
-                        // If we are waiting for an event that hasn't happened, and queue is empty,
-                        // we must wait for producers (e.g. async threads) to schedule something.
-                        // If no untilEvent is set, an empty queue means simulation end.
-                        // BUT if pendingAsync > 0, we MUST wait regardless of queue state (race prevention).
-                        if (untilEvent == null && queue.isEmpty() && pendingAsync.get() == 0) {
-                             // Double check: some async producer might have just added something before we locked?
-                             // If truly empty and no untilEvent, we are done.
-                             return null; 
-                        }
-
-                        // If untilEvent is NOT null, and queue is empty, and pendingAsync is 0,
-                        // it means we are waiting for an event but nothing is scheduled and nothing is running.
-                        // This is a deadlock or "end of simulation before target reached".
-                        if (untilEvent != null && queue.isEmpty() && pendingAsync.get() == 0) {
-                            // Check if untilEvent is already processed (handled by loop condition, but safe to check)
-                            if (untilEvent.isProcessed()) return untilEvent.value();
-                            
-                            // If not processed, we are stuck. Throw EmptySchedule to indicate failure to reach target.
-                            // This matches SimPy's behavior where running until an event that never happens 
-                            // (and schedule empties) raises an exception.
-                            // However, for runUntilEventWithoutScheduleThrows test, it expects RuntimeException with message.
-                            throw new RuntimeException("No scheduled events left before until condition is met");
-                        }
-                        
-                        // If untilEvent is present but not triggered, and queue is empty,
-                        // we MUST wait for something to be scheduled (potentially by other threads).
-                        // However, to avoid infinite deadlocks if producers die, we keep a timeout or rely on user interrupt.
-                        // For this fix, we'll use a loop with wait() to avoid busy spinning.
-                        try {
-                            // Wait for schedule() to notify us
-                            queueLock.wait(100); 
-                            
-                            // Re-check exit conditions after wake-up
-                            if (untilEvent != null && untilEvent.isProcessed()) {
-                                return untilEvent.value();
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Interrupted during simulation wait", e);
-                        }
+        Thread previousOwner = claimOwnership();
+        try {
+            while (true) {
+                try {
+                    if (Thread.interrupted()) {
+                        throw new RuntimeException("Interrupted during simulation run");
                     }
-                    // Queue not empty, proceed to process
-                    s = queue.poll();
-                }
-                
-                if (s != null) {
-                    processEvent(s);
+                    if (untilEvent != null && untilEvent.isProcessed()) {
+                        return untilEvent.value();
+                    }
+                    Event event = next();
+                    if (event == null) {
+                        if (untilEvent == null) return null;
+                        throw new RuntimeException("No scheduled events left before until condition is met");
+                    }
+                    processEvent(polledTime, event);
+                    if (untilEvent != null && untilEvent.isProcessed()) {
+                        return untilEvent.value();
+                    }
+                } catch (StopSimulation e) {
+                    return e.value();
                 }
-                
-                // Check untilEvent after processing one step
-                if (untilEvent != null && untilEvent.isProcessed()) {
-                    return untilEvent.value();
+            }
+        } finally {
+            transferOwnership(previousOwner);
+        }
+    }
+
+    private boolean lanesEmpty() {
+        return urgentLane.isEmpty() && normalLane.isEmpty();
+    }
+
+    /**
+     * Poll the next event (null when none is left). A thread-confined environment polls directly.
+     * Otherwise queueLock is taken once per batch: the head and every event sharing its time and
+     * priority are drained together, and the rest of the batch is handed out without locking
+     * until a callback schedules a zero-delay event that must run before it or another thread's
+     * request waits in the inbox. Every cancelled entry dropped on the way is taken off the
+     * tombstone count.
+     */
+    private Event next() {
+        if (confined) {
+            checkConfinement();
+            return pollNext();
+        }
+        return nextBatched();
+    }
+
+    private Event nextBatched() {
+        // both reads are volatile: a schedule under the lock or into the inbox is seen here
+        if (!batchBroken && inbox.isEmpty()) {
+            while (batchPos < batchSize) {
+                Event event = takeBatched();
+                if (!event.isCancelled()) return event;
+                droppedOutsideLock++;
+            }
+        }
+        synchronized (queueLock) {
+            if (droppedOutsideLock > 0) {
+                tombstones = Math.max(0, tombstones - droppedOutsideLock);
+                droppedOutsideLock = 0;
+            }
+            drainInbox();
+            while (batchPos < batchSize) {
+                Event event;
+                if (batchBroken && precedesBatch()) {
+                    event = pollHead();
+                } else {
+                    batchBroken = false;
+                    event = takeBatched();
                 }
-                
-            } catch ( StopSimulation e ) {
-                return e.value();
+                if (!event.isCancelled()) return event;
+                if (tombstones > 0) tombstones--;
+            }
+            return drain();
+        }
+    }
+
+    /**
+     * Schedule the requests waiting in the inbox, assigning their ids now. Delays count from the
+     * current time. Caller holds queueLock.
+     */
+    private void drainInbox() {
+        if (!inbox.isEmpty()) inbox.drainTo(inboxSink);
+    }
+
+    /**
+     * Poll the next event and move every following event with the same time and priority into
+     * the batch. Caller holds queueLock.
+     */
+    private Event drain() {
+        Event first = pollNext();
+        if (first == null) return null;
+        double time = polledTime;
+        int priority = polledPriority;
+        int n = 0;
+        while (n < BATCH_CAPACITY && headIs(time, priority)) {
+            // cancelled entries are skipped when taken from the batch
+            batch[n++] = pollHead();
+        }
+        if (n > 0) {
+            batchPos = 0;
+            batchSize = n;
+            batchTime = time;
+            batchPriority = priority;
+            batchBroken = false;
+        }
+        polledTime = time;
+        return first;
+    }
+
+    private Event takeBatched() {
+        Event event = batch[batchPos];
+        batch[batchPos++] = null;
+        polledTime = batchTime;
+        if (batchPos == batchSize) {
+            batchPos = 0;
+            batchSize = 0;
+            batchPriority = Integer.MIN_VALUE;
+        }
+        return event;
+    }
+
+    /**
+     * @return whether the next entry outside the batch is at {@code time} and {@code priority}
+     */
+    private boolean headIs(double time, int priority) {
+        EventRing lane = !urgentLane.isEmpty() ? urgentLane : normalLane;
+        if (!lane.isEmpty()) {
+            int lanePriority = lane == urgentLane ? Event.URGENT : Event.NORMAL;
+            double current = clock();
+            if (!queue.headBefore(current, lanePriority, lane.peekId())) {
+                return current == time && lanePriority == priority;
+            }
+        }
+        return !queue.isEmpty() && queue.peekTime() == time && queue.peekPriority() == priority;
+    }
+
+    /**
+     * @return whether an entry outside the pending batch must run before it; lane entries sit at
+     *         the batch time once the batch is pending
+     */
+    private boolean precedesBatch() {
+        if (!urgentLane.isEmpty() && Event.URGENT < batchPriority) return true;
+        if (!normalLane.isEmpty() && Event.NORMAL < batchPriority) return true;
+        return queue.headBefore(batchTime, batchPriority, Long.MIN_VALUE);
+    }
+
+    /**
+     * Remove the next event that has not been cancelled; see {@link #pollHead()}.
+     */
+    private Event pollNext() {
+        while (true) {
+            Event event = pollHead();
+            if (event == null || !event.isCancelled()) return event;
+            if (tombstones > 0) tombstones--;
+        }
+    }
+
+    /**
+     * Remove the next event in {@code (time, priority, id)} order across the lanes and the
+     * queue. Lane entries sit at the current time; the queue head can only beat them if it is
+     * scheduled at the same time with a smaller priority or id. Caller holds queueLock unless
+     * the environment is thread-confined.
+     */
+    private Event pollHead() {
+        EventRing lane = !urgentLane.isEmpty() ? urgentLane : normalLane;
+        if (!lane.isEmpty()) {
+            int priority = lane == urgentLane ? Event.URGENT : Event.NORMAL;
+            double current = clock();
+            if (!queue.headBefore(current, priority, lane.peekId())) {
+                polledTime = current;
+                polledPriority = priority;
+                return lane.poll();
             }
         }
+        polledTime = queue.peekTime();
+        if (!queue.isEmpty()) polledPriority = queue.peekPriority();
+        return queue.poll();
     }
 
-    private void processEvent(Scheduled s) {
-        this.now = s.time();
-        Event event = s.event();
-        var callbacks = event.detachCallbacks();
-        for (Event.Callback cb : callbacks) {
-            cb.call(event);
+    private void processEvent(double time, Event event) {
+        if (confined) {
+            now = time;
+        } else {
+            NOW.setVolatile(this, time);
         }
+        event.dispatchCallbacks();
         if (!event.ok() && !event.isDefused()) {
             throw event.failureAsRuntime();
         }
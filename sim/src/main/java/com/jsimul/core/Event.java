@@ -1,7 +1,7 @@
 package com.jsimul.core;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +16,11 @@ import java.util.List;
 public class Event {
     public static final Object PENDING = new Object();
 
+    /**
+     * Marker stored in {@link #callbacks} once the event has been processed.
+     */
+    private static final Object PROCESSED = new Object();
+
     public static final int URGENT = 0;
 
     public static final int NORMAL = 1;
@@ -29,7 +34,14 @@ public class Event {
 
     protected final Environment env;
 
-    protected List<Callback> callbacks = new ArrayList<>();
+    /**
+     * Registered callbacks: null for none, the {@link Callback} itself for exactly one (the common
+     * case), a {@code Callback[]} holding {@link #callbackCount} entries for more, or
+     * {@link #PROCESSED}.
+     */
+    private Object callbacks;
+
+    private int callbackCount;
 
     protected Object value = PENDING;
 
@@ -37,6 +49,16 @@ public class Event {
 
     protected boolean defused;
 
+    /**
+     * Set by {@link Environment#cancel(Event)}; guarded like the environment's queue.
+     */
+    private boolean cancelled;
+
+    /**
+     * Set when the environment queues the event; guarded like the environment's queue.
+     */
+    private boolean queued;
+
     protected String name;
 
     public Event(Environment env) {
@@ -71,7 +93,29 @@ public class Event {
     }
 
     public boolean isProcessed() {
-        return callbacks == null;
+        return callbacks == PROCESSED;
+    }
+
+    /**
+     * @return whether the event was cancelled and will be dropped instead of processed
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void markCancelled() {
+        cancelled = true;
+    }
+
+    /**
+     * @return whether the environment has queued the event, processed or not
+     */
+    boolean isQueued() {
+        return queued;
+    }
+
+    void markQueued() {
+        queued = true;
     }
 
     public boolean ok() {
@@ -95,32 +139,109 @@ public class Event {
         return value != PENDING;
     }
 
-    public synchronized void addCallback(Callback cb) {
-        if (callbacks != null) {
-            callbacks.add(cb);
+    public void addCallback(Callback cb) {
+        if (env.isThreadConfined()) {
+            env.checkConfinement();
+            appendCallback(cb);
+            return;
+        }
+        synchronized (this) {
+            appendCallback(cb);
         }
-        // If callbacks is null, the event has already been processed.
+    }
+
+    private void appendCallback(Callback cb) {
+        // If the event has already been processed the callback is ignored.
         // According to SimPy parity requirements (and SimPy 2/3 behavior in some contexts),
         // adding a callback to a processed event might be ignored or raise error.
         // The unit test `callbacksIgnoredAfterProcessing` requires it to be ignored.
+        Object current = callbacks;
+        if (current == PROCESSED) return;
+        if (current == null) {
+            callbacks = cb;
+            return;
+        }
+        if (current instanceof Callback single) {
+            Callback[] spill = new Callback[4];
+            spill[0] = single;
+            spill[1] = cb;
+            callbacks = spill;
+            callbackCount = 2;
+            return;
+        }
+        Callback[] spill = (Callback[]) current;
+        if (callbackCount == spill.length) {
+            spill = Arrays.copyOf(spill, callbackCount << 1);
+            callbacks = spill;
+        }
+        spill[callbackCount++] = cb;
     }
 
     /**
      * Remove a callback if still registered (no-op if already processed).
      */
-    public synchronized void removeCallback(Callback cb) {
-        if (callbacks != null) {
-            callbacks.remove(cb);
+    public void removeCallback(Callback cb) {
+        if (env.isThreadConfined()) {
+            env.checkConfinement();
+            dropCallback(cb);
+            return;
+        }
+        synchronized (this) {
+            dropCallback(cb);
+        }
+    }
+
+    private void dropCallback(Callback cb) {
+        Object current = callbacks;
+        if (current == null || current == PROCESSED) return;
+        if (current instanceof Callback single) {
+            if (single.equals(cb)) callbacks = null;
+            return;
+        }
+        Callback[] spill = (Callback[]) current;
+        for (int i = 0; i < callbackCount; i++) {
+            if (spill[i].equals(cb)) {
+                System.arraycopy(spill, i + 1, spill, i, callbackCount - i - 1);
+                spill[--callbackCount] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mark the event processed and return the callbacks registered so far (see
+     * {@link #callbacks} for the representation). Later registrations are ignored. Spill slots
+     * past {@link #callbackCount} are always null.
+     */
+    Object takeCallbacks() {
+        if (env.isThreadConfined()) {
+            Object current = callbacks;
+            callbacks = PROCESSED;
+            return current;
+        }
+        synchronized (this) {
+            Object current = callbacks;
+            callbacks = PROCESSED;
+            return current;
         }
     }
 
     /**
-     * Detach current callbacks for processing; set callbacks to null.
+     * Mark the event processed and invoke its callbacks in registration order. Used by the
+     * environment when processing the event; allocates nothing.
      */
-    synchronized List<Callback> detachCallbacks() {
-        List<Callback> cbs = callbacks;
-        callbacks = null;
-        return cbs == null ? Collections.emptyList() : cbs;
+    void dispatchCallbacks() {
+        Object current = takeCallbacks();
+        if (current == null || current == PROCESSED) return;
+        if (current instanceof Callback single) {
+            single.call(this);
+            return;
+        }
+        // the spill array and its count no longer change once the event is processed
+        Callback[] spill = (Callback[]) current;
+        for (int i = 0, n = callbackCount; i < n; i++) {
+            spill[i].call(this);
+        }
     }
 
     /**
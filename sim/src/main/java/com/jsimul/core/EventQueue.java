@@ -0,0 +1,73 @@
+package com.jsimul.core;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Future event list used by {@link Environment} to hold scheduled events.
+ *
+ * <p>Implementations must hand out entries in ascending {@code (time, priority, id)} order, the
+ * same ordering defined by {@link Scheduled#compareTo(Scheduled)}. Ids are unique per
+ * environment, so the ordering is total. Implementations are not required to be thread-safe;
+ * the environment guards every call.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public interface EventQueue {
+
+    /**
+     * Insert an event scheduled at the given absolute time.
+     */
+    void add(double time, int priority, long id, Event event);
+
+    /**
+     * @return time of the head entry, or {@link Environment#Infinity} when empty
+     */
+    double peekTime();
+
+    /**
+     * Insert a batch of events sharing one time and priority, with consecutive ids starting at
+     * {@code firstId}. Implementations may restore their ordering once for the whole batch.
+     */
+    default void addAll(double time, int priority, long firstId, List<? extends Event> events) {
+        for (int i = 0; i < events.size(); i++) {
+            add(time, priority, firstId + i, events.get(i));
+        }
+    }
+
+    /**
+     * @return priority of the head entry; only called when not empty. Read once per event the
+     *         environment polls, so it should be O(1).
+     */
+    int peekPriority();
+
+    /**
+     * @return whether the head entry orders strictly before {@code (time, priority, id)};
+     *         {@code false} when empty
+     */
+    boolean headBefore(double time, int priority, long id);
+
+    /**
+     * Remove and return the head entry's event.
+     *
+     * @return head event, or {@code null} when empty
+     */
+    Event poll();
+
+    int size();
+
+    /**
+     * Remove every entry whose event matches, used to compact cancelled events once they make up
+     * most of the queue. Must remove every matching entry in O(size): the environment relies on
+     * it to keep the memory and per-poll cost of cancelled timers bounded.
+     *
+     * @return number of entries removed
+     */
+    int removeIf(Predicate<Event> filter);
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+}
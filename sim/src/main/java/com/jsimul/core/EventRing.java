@@ -0,0 +1,66 @@
+package com.jsimul.core;
+
+/**
+ * Growable FIFO ring of {@code (id, event)} pairs used by {@link Environment} for events
+ * scheduled at the current time. Ids are appended in increasing order, so the ring is already
+ * sorted by {@code (time, priority, id)} for a single priority and needs no comparisons.
+ * Allocation-free once the backing arrays have grown to the working-set size.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class EventRing {
+
+    private long[] ids = new long[16];
+
+    private Event[] events = new Event[16];
+
+    private int head;
+
+    private int size;
+
+    void add(long id, Event event) {
+        if (size == ids.length) {
+            grow();
+        }
+        int tail = (head + size) & (ids.length - 1);
+        ids[tail] = id;
+        events[tail] = event;
+        size++;
+    }
+
+    long peekId() {
+        return ids[head];
+    }
+
+    Event poll() {
+        Event e = events[head];
+        events[head] = null;
+        head = (head + 1) & (ids.length - 1);
+        size--;
+        return e;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void grow() {
+        int n = ids.length;
+        long[] newIds = new long[n << 1];
+        Event[] newEvents = new Event[n << 1];
+        int firstPart = n - head;
+        System.arraycopy(ids, head, newIds, 0, firstPart);
+        System.arraycopy(ids, 0, newIds, firstPart, head);
+        System.arraycopy(events, head, newEvents, 0, firstPart);
+        System.arraycopy(events, 0, newEvents, firstPart, head);
+        ids = newIds;
+        events = newEvents;
+        head = 0;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.jsimul.core;
+
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Binary-heap future event list backed by {@link PriorityQueue}. O(log n) insert and removal,
+ * one {@link Scheduled} allocation per entry. Kept as the reference implementation.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class HeapEventQueue implements EventQueue {
+
+    private final PriorityQueue<Scheduled> heap = new PriorityQueue<>();
+
+    @Override
+    public void add(double time, int priority, long id, Event event) {
+        heap.add(new Scheduled(time, priority, id, event));
+    }
+
+    @Override
+    public double peekTime() {
+        Scheduled head = heap.peek();
+        return head == null ? Environment.Infinity : head.time();
+    }
+
+    @Override
+    public boolean headBefore(double time, int priority, long id) {
+        Scheduled head = heap.peek();
+        if (head == null) return false;
+        int c = Double.compare(head.time(), time);
+        if (c != 0) return c < 0;
+        if (head.priority() != priority) return head.priority() < priority;
+        return head.id() < id;
+    }
+
+    @Override
+    public int peekPriority() {
+        return heap.element().priority();
+    }
+
+    @Override
+    public Event poll() {
+        Scheduled head = heap.poll();
+        return head == null ? null : head.event();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public int removeIf(Predicate<Event> filter) {
+        int before = heap.size();
+        heap.removeIf(s -> filter.test(s.event()));
+        return before - heap.size();
+    }
+
+}
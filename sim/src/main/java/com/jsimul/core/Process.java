@@ -1,16 +1,31 @@
 package com.jsimul.core;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Process wrapping user logic that awaits events. Modeled after SimPy's Process.
  *
- * <p>This implementation uses virtual threads (Java 21) to run process logic and provides a
- * blocking await(Event) API via {@link ProcessContext}.
+ * <p>This implementation runs process logic on threads of the environment's
+ * {@link ProcessExecutor} (a virtual thread per process by default) and provides a blocking
+ * await(Event) API via {@link ProcessContext}.
+ *
+ * <p>Control moves between the thread running the environment and the process thread by strict
+ * baton passing: the resume callback hands the baton to the process and parks until the process
+ * awaits again or finishes, and the process parks while it does not hold the baton. Exactly one
+ * side runs at any time, so process bodies behave like SimPy generators resumed synchronously
+ * from within the event loop.
+ *
+ * <p>A process can instead be built from a {@link Step}: such a threadless process runs entirely
+ * on the thread that processes events, continuation-passing style. Each step registers the next
+ * one with {@link StepContext#then}, so no thread or carrier hand-off is involved and millions of
+ * them cost no more than their events.
+ *
+ * <p>When the environment {@linkplain Environment#usesContinuations() uses continuations}, a
+ * {@link ProcessFunction} body runs as a continuation on the event loop thread itself: await
+ * yields the continuation and the resume callback runs it again, with no thread involved.
  *
  * @author waiting
  * @date 2025/10/29
@@ -25,6 +40,17 @@ public class Process implements SimEvent {
         Object run(ProcessContext ctx) throws Exception;
     }
 
+    /**
+     * One step of a threadless process. It receives the value of the event it waited for (null
+     * for the first step), does its work and either continues with {@link StepContext#then}
+     * or ends the process by returning without continuing. Throwing fails the process, just like
+     * an exception escaping a {@link ProcessFunction}.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void resume(StepContext ctx, Object value) throws Exception;
+    }
+
     /**
      * Context passed into user logic to await events and access environment.
      */
@@ -34,54 +60,32 @@ public class Process implements SimEvent {
             return env;
         }
 
-        private void completeFromEvent(Event ev, CompletableFuture<Object> fut) {
-            if (ev.ok()) {
-                fut.complete(ev.value());
-            } else {
-                Throwable t = (Throwable) ev.value();
-                fut.completeExceptionally(Objects.requireNonNullElseGet(t, () -> new RuntimeException("Event failed without cause")));
-            }
-        }
-
         /**
          * Await completion of an event; returns its value or throws if failed/interrupted.
          */
         public Object await(Event e) throws Exception {
+            if (e.isProcessed()) {
+                // nothing to wait for: no callback, no hand-off
+                if (e.ok()) return e.value();
+                throw asException(failureOf(e));
+            }
             // Record the current target event for observability and SimPy parity
             target = e;
-            CompletableFuture<Object> fut = new CompletableFuture<>();
-            currentWait.set(fut);
-            Event.Callback callback = ev -> {
-                env.incPending(); // Signal wake up
-                completeFromEvent(ev, fut);
-            };
-            e.addCallback(callback);
-            // Handle race where event already processed before callback registration
-            if (e.isProcessed() && !fut.isDone()) {
-                completeFromEvent(e, fut);
-            }
-            env.decPending(); // Yield
-            
-            // Clear active process while blocked
-            env.setActiveProcess(null);
+            e.addCallback(wakeCallback);
             try {
-                return fut.join();
+                yieldToScheduler();
             } catch (RuntimeException ex) {
-                Throwable cause = ex.getCause();
-                if (cause instanceof Interrupt) throw (Interrupt) cause;
-                if (cause instanceof Exception) throw (Exception) cause;
-                throw ex;
-            } finally {
-                // Restore active process upon resumption
-                env.setActiveProcess(Process.this);
-                
-                // We are resuming (either via callback or immediate completion)
-                // ... (comments) ...
-                
-                currentWait.compareAndSet(fut, null);
+                // a pinned continuation cannot yield; stop waiting so the failure ends the body
+                e.removeCallback(wakeCallback);
                 target = null;
-                e.removeCallback(callback);
+                throw ex;
             }
+            Throwable failure = resumeFailure;
+            Object value = resumeValue;
+            resumeFailure = null;
+            resumeValue = null;
+            if (failure == null) return value;
+            throw asException(failure);
         }
 
         /**
@@ -93,28 +97,170 @@ public class Process implements SimEvent {
 
     }
 
+    /**
+     * Context passed into {@link Step}s to continue with the next step once an event is processed.
+     */
+    public final class StepContext {
+
+        public Environment env() {
+            return env;
+        }
+
+        public Process process() {
+            return Process.this;
+        }
+
+        /**
+         * Continue with {@code next} once {@code e} succeeds. If it fails, or the process is
+         * interrupted meanwhile, the process fails with that exception.
+         */
+        public void then(Event e, Step next) {
+            then(e, next, null);
+        }
+
+        /**
+         * Continue with {@code next} once {@code e} succeeds, or with {@code onFailure} (which
+         * receives the exception as its value) if it fails or the process is interrupted.
+         */
+        public void then(Event e, Step next, Step onFailure) {
+            if (target != null || ready != null || exited) {
+                throw new IllegalStateException("Step has already continued or exited");
+            }
+            nextStep = Objects.requireNonNull(next, "next");
+            failureStep = onFailure;
+            if (e.isProcessed()) {
+                // resumed by the step loop once the current step returns, keeping the stack flat
+                ready = e;
+                return;
+            }
+            target = e;
+            e.addCallback(wakeCallback);
+        }
+
+        public void then(SimEvent e, Step next) {
+            then(e.asEvent(), next, null);
+        }
+
+        public void then(SimEvent e, Step next, Step onFailure) {
+            then(e.asEvent(), next, onFailure);
+        }
+
+        /**
+         * End the process successfully with {@code value} once the current step returns.
+         */
+        public void exit(Object value) {
+            if (target != null || ready != null) {
+                throw new IllegalStateException("Step has already continued");
+            }
+            exited = true;
+            exitValue = value;
+        }
+
+    }
+
     private final Environment env;
 
     private final Event inner;
 
     private final ProcessFunction function;
 
-    private final ProcessContext ctx = new ProcessContext();
+    private final ProcessContext ctx;
+
+    private final Step first;
+
+    private final StepContext steps;
 
-    private final AtomicReference<CompletableFuture<Object>> currentWait = new AtomicReference<>();
+    private Step nextStep;
+
+    private Step failureStep;
+
+    /**
+     * Already processed event a step continued with; consumed by {@link #runSteps}.
+     */
+    private Event ready;
+
+    private boolean exited;
+
+    private Object exitValue;
 
     private volatile Event target;
 
-    private static final ExecutorService EXEC = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * The process's single wait slot: this callback is registered on {@link #target} while the
+     * process waits, and the outcome is handed over in {@link #resumeValue} and
+     * {@link #resumeFailure}. Reusing it keeps awaiting allocation-free.
+     */
+    private final Event.Callback wakeCallback = this::wake;
+
+    private Object resumeValue;
+
+    private Throwable resumeFailure;
+
+    /**
+     * Baton flag: true while the process thread runs, false while the scheduler side runs. The
+     * volatile write on each hand-off publishes every plain field above to the other side.
+     */
+    private volatile boolean running;
+
+    /**
+     * Thread that handed the baton to the process and is parked waiting for it back.
+     */
+    private Thread scheduler;
+
+    private Thread thread;
+
+    /**
+     * Body continuation in continuation mode, created on start.
+     */
+    private Object continuation;
+
+    /**
+     * Set by {@link #terminate()} before the baton is handed back to unwind the body; read by the
+     * body's thread, which may not have been handed the baton yet.
+     */
+    private volatile boolean terminated;
+
+    /**
+     * Longest {@link #terminate()} waits for a body to unwind.
+     */
+    private static final long TERMINATE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Thrown out of a suspended await to unwind a body on {@link Environment#close()}.
+     */
+    private static final class Termination extends Error {
+
+        Termination() {
+            super("process terminated", null, false, false);
+        }
+    }
 
     public Process(Environment env, ProcessFunction function) {
         this(env, function, null);
     }
 
     public Process(Environment env, ProcessFunction function, String name) {
+        this(env, Objects.requireNonNull(function, "function"), null, name);
+    }
+
+    /**
+     * Create a threadless process starting with {@code first}.
+     */
+    public Process(Environment env, Step first) {
+        this(env, first, null);
+    }
+
+    public Process(Environment env, Step first, String name) {
+        this(env, null, Objects.requireNonNull(first, "first"), name);
+    }
+
+    private Process(Environment env, ProcessFunction function, Step first, String name) {
         this.env = env;
         this.inner = new Event(env, name);
         this.function = function;
+        this.ctx = function != null ? new ProcessContext() : null;
+        this.first = first;
+        this.steps = first != null ? new StepContext() : null;
         // schedule initialization urgently to start before interrupts
         env.schedule(Initialize.make(env, this), Event.URGENT, 0);
     }
@@ -269,26 +415,232 @@ public class Process implements SimEvent {
     }
 
     void _start() {
-        env.incPending();
-        EXEC.submit(() -> {
-            env.setActiveProcess(this);
-            try {
-                Object ret = function.run(ctx);
-                if (!inner.triggered()) {
-                    inner.markOk(ret);
+        if (first != null) {
+            runSteps(first, null);
+        } else {
+            handOff();
+        }
+    }
+
+    /**
+     * Run steps on the current thread until one waits for a pending event or the process ends.
+     * Continuations on already processed events are followed iteratively.
+     */
+    private void runSteps(Step step, Object value) {
+        Process previous = env.activeProcess();
+        env.setActiveProcess(this);
+        try {
+            while (true) {
+                nextStep = null;
+                failureStep = null;
+                step.resume(steps, value);
+                if (exited) {
+                    finish(exitValue);
+                    return;
                 }
-                env.schedule(inner, Event.NORMAL, 0);
-            } catch (ProcessExit exit) {
-                inner.markOk(exit.value());
-                env.schedule(inner, Event.NORMAL, 0);
-            } catch (Throwable t) {
-                inner.fail(stripTraceback(t));
-                env.schedule(inner, Event.NORMAL, 0);
-            } finally {
-                env.setActiveProcess(null);
-                env.decPending();
+                Event e = ready;
+                if (e == null) {
+                    if (target == null) finish(null);
+                    return;
+                }
+                ready = null;
+                step = e.ok() ? nextStep : failureStep;
+                value = e.ok() ? e.value() : failureOf(e);
+                if (step == null) {
+                    failWith((Throwable) value);
+                    return;
+                }
+            }
+        } catch (ProcessExit exit) {
+            finish(exit.value());
+        } catch (Throwable t) {
+            Event waitingOn = target;
+            if (waitingOn != null) {
+                waitingOn.removeCallback(wakeCallback);
+                target = null;
+            }
+            ready = null;
+            failWith(t);
+        } finally {
+            env.setActiveProcess(previous);
+        }
+    }
+
+    /**
+     * Continue a suspended threadless process with the outcome of the event it waited for.
+     */
+    private void resumeSteps(boolean ok, Object value) {
+        Step step = ok ? nextStep : failureStep;
+        if (step == null) {
+            failWith((Throwable) value);
+        } else {
+            runSteps(step, value);
+        }
+    }
+
+    private void finish(Object value) {
+        if (!inner.triggered()) {
+            inner.markOk(value);
+        }
+        env.schedule(inner, Event.NORMAL, 0);
+    }
+
+    private void failWith(Throwable t) {
+        if (!inner.triggered()) {
+            inner.fail(stripTraceback(t));
+        }
+    }
+
+    private void body() {
+        thread = Thread.currentThread();
+        env.transferOwnership(thread);
+        try {
+            if (terminated) throw new Termination();
+            Object ret = function.run(ctx);
+            // a body that caught its Termination and returned has nothing to report either
+            if (terminated) throw new Termination();
+            if (!inner.triggered()) {
+                inner.markOk(ret);
+            }
+            env.schedule(inner, Event.NORMAL, 0);
+        } catch (ProcessExit exit) {
+            if (terminated) return;
+            inner.markOk(exit.value());
+            env.schedule(inner, Event.NORMAL, 0);
+        } catch (Termination closed) {
+            // the environment is closed: nothing left to report to
+        } catch (Throwable t) {
+            if (terminated) return;
+            inner.fail(stripTraceback(t));
+            env.schedule(inner, Event.NORMAL, 0);
+        } finally {
+            env.processThreadFinished(this);
+            Thread s = scheduler;
+            running = false;
+            LockSupport.unpark(s);
+        }
+    }
+
+    /**
+     * Resume callback registered by await and {@link StepContext#then}; runs on the scheduler side.
+     */
+    private void wake(Event ev) {
+        if (ev != target) return;
+        target = null;
+        if (first != null) {
+            resumeSteps(ev.ok(), ev.ok() ? ev.value() : failureOf(ev));
+            return;
+        }
+        if (ev.ok()) {
+            resumeValue = ev.value();
+        } else {
+            resumeFailure = failureOf(ev);
+        }
+        handOff();
+    }
+
+    /**
+     * Scheduler side: give the baton to the process (starting its thread on first use) and park
+     * until it comes back.
+     */
+    private void handOff() {
+        Process previous = env.activeProcess();
+        env.setActiveProcess(this);
+        if (env.usesContinuations()) {
+            if (continuation == null) {
+                continuation = Continuations.create(this::body);
+            }
+            Continuations.run(continuation);
+            env.setActiveProcess(previous);
+            return;
+        }
+        scheduler = Thread.currentThread();
+        running = true;
+        if (thread == null) {
+            try {
+                env.startProcessThread(this, this::body);
+            } catch (RejectedExecutionException e) {
+                running = false;
+                env.setActiveProcess(previous);
+                failWith(e);
+                return;
             }
-        });
+        } else {
+            LockSupport.unpark(thread);
+        }
+        boolean interrupted = false;
+        while (running) {
+            LockSupport.park(this);
+            interrupted |= Thread.interrupted();
+        }
+        env.transferOwnership(scheduler);
+        env.setActiveProcess(previous);
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Process side: return the baton to the scheduler and park until resumed.
+     */
+    private void yieldToScheduler() {
+        // a body that caught its Termination must not wait again: keep the baton and unwind
+        if (terminated) throw new Termination();
+        if (continuation != null) {
+            Continuations.yieldNow();
+            return;
+        }
+        Thread s = scheduler;
+        running = false;
+        LockSupport.unpark(s);
+        boolean interrupted = false;
+        while (!running) {
+            LockSupport.park(this);
+            interrupted |= Thread.interrupted();
+        }
+        if (terminated) throw new Termination();
+        env.transferOwnership(thread);
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Unwind a body suspended in an await: hand it the baton with {@link Termination} pending
+     * and park until its thread is done. A body that catches the termination gets it again from
+     * its next await. Runs on the thread closing the environment.
+     *
+     * @return whether the body has exited, or will as soon as its thread starts; {@code false}
+     *         if it was still running after {@link #TERMINATE_TIMEOUT_NANOS}
+     */
+    boolean terminate() {
+        Event waitingOn = target;
+        if (waitingOn != null) {
+            waitingOn.removeCallback(wakeCallback);
+            target = null;
+        }
+        terminated = true;
+        Thread t = thread;
+        // not started yet: the body checks the flag before running the function
+        if (t == null) return true;
+        scheduler = Thread.currentThread();
+        running = true;
+        LockSupport.unpark(t);
+        long deadline = System.nanoTime() + TERMINATE_TIMEOUT_NANOS;
+        boolean interrupted = false;
+        while (running) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) break;
+            LockSupport.parkNanos(this, left);
+            interrupted |= Thread.interrupted();
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return !running;
+    }
+
+    private static Exception asException(Throwable failure) {
+        return failure instanceof Exception ex ? ex : new RuntimeException(failure);
+    }
+
+    private static Throwable failureOf(Event ev) {
+        Throwable t = (Throwable) ev.value();
+        return Objects.requireNonNullElseGet(t, () -> new RuntimeException("Event failed without cause"));
     }
 
     void _resume(Event e) {
@@ -296,18 +648,22 @@ public class Process implements SimEvent {
         if (e.ok()) {
             _start();
         } else {
-            CompletableFuture<Object> wait = currentWait.get();
-            if (wait != null && e.value() instanceof Throwable) {
-                env.incPending(); // Waking up via interruption
-                wait.completeExceptionally(stripTraceback((Throwable) e.value()));
+            Event waitingOn = target;
+            if (waitingOn != null && e.value() instanceof Throwable t) {
+                // Suspended in await: detach from the awaited event and resume with the interrupt
+                // interrupt: take the wait slot back from the awaited event
+                waitingOn.removeCallback(wakeCallback);
+                target = null;
+                if (first != null) {
+                    resumeSteps(false, stripTraceback(t));
+                    return;
+                }
+                resumeFailure = stripTraceback(t);
+                handOff();
                 return;
             }
-            // If no wait is registered (e.g., interrupt arrived before await), fail the process
+            // If the process is not waiting (e.g., it already finished), fail it if still alive
             if (!inner.triggered() && e.value() instanceof Throwable t) {
-                if (target != null) {
-                    target.removeCallback(this::_resume);
-                    target = null;
-                }
                 inner.fail(stripTraceback(t));
                 env.schedule(inner, Event.NORMAL, 0);
             }
@@ -0,0 +1,142 @@
+package com.jsimul.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy deciding where the bodies of an {@link Environment}'s threaded processes run.
+ *
+ * <ul>
+ *   <li>{@link #virtualThreads()}: one virtual thread per process (the default);</li>
+ *   <li>{@link #platformThreads(int)}: a bounded pool of platform threads; starting a process
+ *   while {@code maxThreads} bodies are alive fails that process with a
+ *   {@link java.util.concurrent.RejectedExecutionException};</li>
+ *   <li>{@link #callerThread()}: continuations on the thread running the environment, see
+ *   {@link Environment.Builder#continuations(boolean)}.</li>
+ * </ul>
+ *
+ * <p>Each environment gets its own instance and releases it in {@link Environment#close()}, so
+ * replications run side by side do not share or exhaust each other's threads. A body occupies
+ * its thread from start to finish, parked while it does not hold the baton.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public abstract class ProcessExecutor {
+
+    ProcessExecutor() {
+    }
+
+    /**
+     * @return a strategy starting one virtual thread per process
+     */
+    public static ProcessExecutor virtualThreads() {
+        return new VirtualThreads();
+    }
+
+    /**
+     * @param maxThreads most process bodies alive at once
+     * @return a strategy running process bodies on a pool of daemon platform threads
+     */
+    public static ProcessExecutor platformThreads(int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be positive: " + maxThreads);
+        }
+        return new PlatformThreads(maxThreads);
+    }
+
+    /**
+     * @return a strategy running process bodies as continuations on the caller's thread
+     */
+    public static ProcessExecutor callerThread() {
+        return CallerThread.INSTANCE;
+    }
+
+    /**
+     * @return most process bodies alive at once
+     */
+    public int maxThreads() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return whether bodies run as continuations instead of on threads
+     */
+    boolean runsOnCaller() {
+        return false;
+    }
+
+    /**
+     * Release the strategy's threads once no body uses them any more.
+     */
+    void shutdown() {
+    }
+
+    /**
+     * Strategies running each body on a thread of its own; the only ones the environment starts
+     * bodies on.
+     */
+    abstract static class Threads extends ProcessExecutor {
+
+        /**
+         * Start {@code body} on a thread of this strategy.
+         */
+        abstract void start(Runnable body);
+    }
+
+    private static final class VirtualThreads extends Threads {
+
+        private final ThreadFactory factory = Thread.ofVirtual().name("jsimul-process-", 0).factory();
+
+        @Override
+        void start(Runnable body) {
+            factory.newThread(body).start();
+        }
+    }
+
+    private static final class PlatformThreads extends Threads {
+
+        private final int maxThreads;
+
+        private final ExecutorService pool;
+
+        PlatformThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+            ThreadFactory factory = Thread.ofPlatform().name("jsimul-process-", 0).daemon(true).factory();
+            // the environment caps live bodies at maxThreads; the queue only covers a finished
+            // body's thread on its way back to the pool
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), factory);
+            executor.allowCoreThreadTimeOut(true);
+            this.pool = executor;
+        }
+
+        @Override
+        public int maxThreads() {
+            return maxThreads;
+        }
+
+        @Override
+        void start(Runnable body) {
+            pool.execute(body);
+        }
+
+        @Override
+        void shutdown() {
+            pool.shutdown();
+        }
+    }
+
+    private static final class CallerThread extends ProcessExecutor {
+
+        static final CallerThread INSTANCE = new CallerThread();
+
+        @Override
+        boolean runsOnCaller() {
+            return true;
+        }
+    }
+}
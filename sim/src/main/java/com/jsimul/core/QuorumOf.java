@@ -0,0 +1,49 @@
+package com.jsimul.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * k-of-n condition: succeeds once {@code k} of the distinct operands have been processed
+ * successfully (compositional form). Like {@link AllOf} and {@link AnyOf} it fails as soon as an
+ * operand fails. Operands still outstanding when the quorum is processed are detached, which suits
+ * first-k-responses models where most operands complete after the decision.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class QuorumOf implements ConditionCarrier {
+
+    private final Condition condition;
+
+    private final Event inner;
+
+    /**
+     * @param k number of operands required, from 0 up to the number of distinct operands
+     */
+    public QuorumOf(Environment env, int k, List<?> events) {
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0: " + k);
+        this.condition = new Condition(env, Condition.kEvents(k), events);
+        if (k > condition.operandCount()) {
+            condition.detach();
+            throw new IllegalArgumentException("k = " + k + " exceeds the "
+                    + condition.operandCount() + " distinct operands");
+        }
+        this.inner = condition.asEvent();
+    }
+
+    public QuorumOf(Environment env, int k, Object... events) {
+        this(env, k, Arrays.asList(events));
+    }
+
+    @Override
+    public Event asEvent() {
+        return inner;
+    }
+
+    @Override
+    public Condition condition() {
+        return condition;
+    }
+
+}
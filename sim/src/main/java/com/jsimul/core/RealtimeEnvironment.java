@@ -1,5 +1,7 @@
 package com.jsimul.core;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Real-time environment wrapper that keeps simulation time in sync with the
  * wall clock. The inner {@link Environment} retains responsibility for event
@@ -12,7 +14,7 @@ package com.jsimul.core;
  * @author waiting
  * @date 2025/11/05
  */
-public final class RealtimeEnvironment implements BaseEnvironment {
+public final class RealtimeEnvironment implements BaseEnvironment, AutoCloseable {
 
     private final Environment delegate;
 
@@ -113,6 +115,14 @@ public final class RealtimeEnvironment implements BaseEnvironment {
         delegate.exit();
     }
 
+    /**
+     * Unwind suspended processes of the inner environment, see {@link Environment#close()}.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
     @Override
     public double now() {
         return delegate.now();
@@ -142,8 +152,7 @@ public final class RealtimeEnvironment implements BaseEnvironment {
             throw new EmptySchedule();
         }
 
-        double target = realStart + (evtTime - envStart) * factor;
-        delayUntil(target);
+        delayUntil(evtTime);
         delegate.step();
     }
 
@@ -153,7 +162,13 @@ public final class RealtimeEnvironment implements BaseEnvironment {
         if (sentinel != null && sentinel.isProcessed()) {
             return sentinel.value();
         }
-        return executeLoop(sentinel);
+        // external threads triggering events now queue them for the loop, see Environment
+        Thread previousOwner = delegate.claimOwnership();
+        try {
+            return executeLoop(sentinel);
+        } finally {
+            delegate.transferOwnership(previousOwner);
+        }
     }
 
     private Object executeLoop(Event sentinel) {
@@ -173,9 +188,7 @@ public final class RealtimeEnvironment implements BaseEnvironment {
     }
 
     private void waitForScheduling(Event sentinel) {
-        while (peek() == Environment.Infinity && !sentinel.isProcessed() && !sentinel.triggered()) {
-            Thread.onSpinWait();
-        }
+        delegate.awaitScheduled(() -> sentinel.isProcessed() || sentinel.triggered());
     }
 
     private Event resolveUntil(Object until) {
@@ -210,13 +223,31 @@ public final class RealtimeEnvironment implements BaseEnvironment {
         throw new IllegalArgumentException("Unsupported until type: " + until);
     }
 
-    private void delayUntil(double target) {
-        while (true) {
-            double delta = target - clock.nowSeconds();
-            if (delta <= 0) {
-                break;
+    /**
+     * Sleep until the wall clock reaches the next event's due time. The sleep is cut short when
+     * another thread schedules something, and the deadline follows the schedule head, so an
+     * earlier event arriving meanwhile is not held back.
+     */
+    private void delayUntil(double evtTime) {
+        double target = realStart + (evtTime - envStart) * factor;
+        delegate.beginIdle();
+        try {
+            while (true) {
+                // read the head only once the waiter is published: a schedule that landed after
+                // the caller peeked found no one to unpark, see Environment#awaitScheduled
+                double head = peek();
+                if (head == Environment.Infinity) {
+                    break;
+                }
+                target = realStart + (head - envStart) * factor;
+                double delta = target - clock.nowSeconds();
+                if (delta <= 0) {
+                    break;
+                }
+                sleep(delta);
             }
-            sleep(delta);
+        } finally {
+            delegate.endIdle();
         }
         if (strict) {
             double lag = clock.nowSeconds() - target;
@@ -256,10 +287,10 @@ public final class RealtimeEnvironment implements BaseEnvironment {
         INSTANCE;
         @Override
         public void sleepNanos(long nanos) throws InterruptedException {
-            long millis = nanos / 1_000_000L;
-            int nanosPart = (int) (nanos % 1_000_000L);
-            if (millis > 0 || nanosPart > 0) {
-                Thread.sleep(millis, nanosPart);
+            // parking rather than sleeping lets a schedule call wake the loop early
+            LockSupport.parkNanos(this, nanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
             }
         }
     }
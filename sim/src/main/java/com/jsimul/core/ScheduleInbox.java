@@ -0,0 +1,105 @@
+package com.jsimul.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free multi-producer single-consumer queue of schedule requests made by threads that do
+ * not hold the process baton. Producers append with a single atomic swap of the tail and never
+ * block each other or the event loop; {@link Environment} drains the requests under its queue
+ * lock at well-defined points of the loop, so sequence numbers are assigned by the consumer in
+ * drain order rather than by whichever producer wins a race for the lock. Requests from one
+ * producer keep their relative order.
+ *
+ * <p>Linked list with a stub node (Vyukov): the consumer owns {@link #head}, whose successor is
+ * the oldest request. A request becomes visible once its predecessor links to it, which happens
+ * right after the producer's swap.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class ScheduleInbox {
+
+    /**
+     * Receives drained requests in arrival order.
+     */
+    interface Sink {
+        void accept(Event event, int priority, double delay);
+    }
+
+    static final class Request {
+
+        Event event;
+
+        final int priority;
+
+        final double delay;
+
+        volatile Request next;
+
+        Request(Event event, int priority, double delay) {
+            this.event = event;
+            this.priority = priority;
+            this.delay = delay;
+        }
+    }
+
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            TAIL = MethodHandles.lookup().findVarHandle(ScheduleInbox.class, "tail", Request.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Request head;
+
+    @SuppressWarnings("unused") // accessed through TAIL
+    private volatile Request tail;
+
+    ScheduleInbox() {
+        Request stub = new Request(null, 0, 0);
+        head = stub;
+        tail = stub;
+    }
+
+    /**
+     * Append a request; safe from any thread.
+     */
+    void offer(Event event, int priority, double delay) {
+        Request request = new Request(event, priority, delay);
+        Request previous = (Request) TAIL.getAndSet(this, request);
+        previous.next = request;
+    }
+
+    /**
+     * @return whether no linked request is waiting; a request whose producer has swapped the
+     *         tail but not linked it yet is picked up by a later drain
+     */
+    boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /**
+     * Hand every linked request to {@code sink} in arrival order. Consumers must be serialized.
+     *
+     * @return number of requests drained
+     */
+    int drainTo(Sink sink) {
+        int n = 0;
+        Request h = head;
+        Request next;
+        while ((next = h.next) != null) {
+            Event event = next.event;
+            // the drained node becomes the stub, which must not keep the event reachable
+            next.event = null;
+            head = next;
+            h = next;
+            sink.accept(event, next.priority, next.delay);
+            n++;
+        }
+        return n;
+    }
+}
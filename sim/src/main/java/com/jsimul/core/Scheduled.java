@@ -1,7 +1,8 @@
 package com.jsimul.core;
 
 /**
- * Internal scheduled entry used by Environment's priority queue.
+ * Internal scheduled entry used by {@link HeapEventQueue}; its ordering is the contract every
+ * {@link EventQueue} must follow.
  *
  * @author waiting
  * @date 2025/10/29
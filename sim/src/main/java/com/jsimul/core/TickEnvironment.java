@@ -0,0 +1,131 @@
+package com.jsimul.core;
+
+import java.util.List;
+
+/**
+ * Environment whose clock is an integer count of ticks of a fixed resolution.
+ *
+ * <p>Every scheduled time is a whole number of ticks, so repeated delays add up exactly and a
+ * run is bit-reproducible no matter how its delays are split or reordered. In a plain
+ * {@link Environment}, ten timeouts of {@code 0.1} end slightly before {@code 1.0}; here they end
+ * at exactly ten ticks. Internally ticks are kept in the same {@code double} columns as ordinary
+ * times, which represent integers exactly up to 2<sup>53</sup>, so every {@link EventQueue}
+ * works unchanged.
+ *
+ * <p>The {@code double} API stays available as a conversion layer: {@link #now()} and
+ * {@link #peek()} report {@code ticks * resolution}, and delays passed to
+ * {@link #schedule(Event, int, double)}, {@link #timeout(double)} or {@link #run(double)} are
+ * rounded to the nearest tick. The {@code *Ticks} methods skip the conversion.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class TickEnvironment extends Environment {
+
+    private final double resolution;
+
+    /**
+     * @param resolution simulated time covered by one tick
+     */
+    public TickEnvironment(double resolution) {
+        this(resolution, 0);
+    }
+
+    /**
+     * @param resolution   simulated time covered by one tick
+     * @param initialTicks starting clock in ticks
+     */
+    public TickEnvironment(double resolution, long initialTicks) {
+        this(builder().tickResolution(resolution).initialTime(initialTicks * resolution));
+    }
+
+    TickEnvironment(Builder builder) {
+        super(builder);
+        this.resolution = builder.tickResolution();
+    }
+
+    /**
+     * @return simulated time covered by one tick
+     */
+    public double resolution() {
+        return resolution;
+    }
+
+    /**
+     * @return current time in ticks
+     */
+    public long nowTicks() {
+        return (long) clock();
+    }
+
+    @Override
+    public double now() {
+        return clock() * resolution;
+    }
+
+    @Override
+    public double peek() {
+        return super.peek() * resolution;
+    }
+
+    /**
+     * @return the tick nearest to {@code time}
+     */
+    public long toTicks(double time) {
+        return Math.round(time / resolution);
+    }
+
+    public double toTime(long ticks) {
+        return ticks * resolution;
+    }
+
+    @Override
+    public void schedule(Event event, int priority, double delay) {
+        scheduleIn(event, priority, Double.isInfinite(delay) ? delay : toTicks(delay));
+    }
+
+    @Override
+    public void scheduleAll(List<? extends Event> events, int priority, double delay) {
+        scheduleAllIn(events, priority, Double.isInfinite(delay) ? delay : toTicks(delay));
+    }
+
+    /**
+     * Schedule {@code event} the given number of ticks from now.
+     */
+    public void scheduleTicks(Event event, int priority, long delayTicks) {
+        scheduleIn(event, priority, delayTicks);
+    }
+
+    /**
+     * Create a {@link Timeout} that fires after the given number of ticks.
+     */
+    public Timeout timeoutTicks(long delayTicks) {
+        return timeoutTicks(delayTicks, null);
+    }
+
+    /**
+     * Create a {@link Timeout} with a payload that fires after the given number of ticks.
+     */
+    public Timeout timeoutTicks(long delayTicks, Object value) {
+        // converts back to exactly delayTicks in schedule()
+        return new Timeout(this, toTime(delayTicks), value);
+    }
+
+    /**
+     * Run until the given absolute time, rounded to the nearest tick.
+     */
+    @Override
+    public Object run(double untilTime) {
+        return runUntilTick(toTicks(untilTime));
+    }
+
+    /**
+     * Run until the clock reaches the given absolute tick.
+     */
+    public Object runUntilTick(long untilTick) {
+        long now = nowTicks();
+        if (untilTick <= now) throw new IllegalArgumentException("until must be > now");
+        return run(timeoutTicks(untilTick - now).asEvent());
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.jsimul.core;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical timing wheel in front of another {@link EventQueue}.
+ *
+ * <p>Time is cut into ticks of a fixed width. Entries whose tick lies within the wheel horizon
+ * ({@code 64^levels} ticks ahead of the wheel cursor) are dropped into a bucket in O(1) without
+ * touching the wrapped queue; everything else, including entries at or before the cursor, goes
+ * straight to the wrapped queue. A bucket is fed into the wrapped queue only when it might hold
+ * the earliest entry, that is when the wrapped queue's head is not in an earlier tick. Buckets of
+ * coarser levels are cascaded into finer ones as the cursor reaches them, as in Varghese and
+ * Lauck's hashed hierarchical wheels. Since the wrapped queue makes every final decision, the
+ * exact {@link Scheduled} ordering is preserved.
+ *
+ * <p>Pays off when most events are timeouts a few ticks to a few thousand ticks ahead: the
+ * wrapped queue then holds only the entries of the current tick or so and stays small. Pick a
+ * tick width around the typical gap between consecutive event times.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class TimingWheelEventQueue implements EventQueue {
+
+    public static final int DEFAULT_LEVELS = 4;
+
+    private static final int BITS = 6;
+
+    private static final int SLOTS = 1 << BITS;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double tickWidth;
+
+    private final int levels;
+
+    private final EventQueue queue;
+
+    /**
+     * Every tick up to and including the cursor has been fed to {@link #queue}; wheel entries
+     * all lie in later ticks and are bucketed relative to the cursor.
+     */
+    private long cursor;
+
+    /**
+     * First entry of each bucket, {@code level * SLOTS + slot}; {@code -1} when empty.
+     */
+    private final int[] heads;
+
+    /**
+     * One bit per non-empty bucket, one word per level.
+     */
+    private final long[] occupied;
+
+    // wheel entries, struct-of-arrays and chained through `next`
+    private double[] times;
+
+    private int[] priorities;
+
+    private long[] ids;
+
+    private long[] ticks;
+
+    private Event[] events;
+
+    private int[] next;
+
+    private int free = -1;
+
+    private int used;
+
+    private int wheelSize;
+
+    public TimingWheelEventQueue(double tickWidth) {
+        this(tickWidth, DEFAULT_LEVELS, new ArrayHeapEventQueue());
+    }
+
+    /**
+     * @param tickWidth simulated time covered by one bucket of the finest level
+     * @param levels    wheel levels of 64 buckets each, 1 to 10
+     * @param queue     empty queue that orders due and far-future entries
+     */
+    public TimingWheelEventQueue(double tickWidth, int levels, EventQueue queue) {
+        if (!(tickWidth > 0) || Double.isInfinite(tickWidth)) {
+            throw new IllegalArgumentException("tickWidth must be positive and finite: " + tickWidth);
+        }
+        if (levels < 1 || levels * BITS >= Long.SIZE) {
+            throw new IllegalArgumentException("levels must be between 1 and 10: " + levels);
+        }
+        if (queue == null || !queue.isEmpty()) {
+            throw new IllegalArgumentException("queue must be non-null and empty");
+        }
+        this.tickWidth = tickWidth;
+        this.levels = levels;
+        this.queue = queue;
+        this.heads = new int[levels * SLOTS];
+        Arrays.fill(heads, -1);
+        this.occupied = new long[levels];
+        times = new double[INITIAL_CAPACITY];
+        priorities = new int[INITIAL_CAPACITY];
+        ids = new long[INITIAL_CAPACITY];
+        ticks = new long[INITIAL_CAPACITY];
+        events = new Event[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void add(double time, int priority, long id, Event event) {
+        long tick = tickOf(time);
+        if (tick <= cursor || levelOf(tick) >= levels) {
+            queue.add(time, priority, id, event);
+            return;
+        }
+        int e = allocate();
+        times[e] = time;
+        priorities[e] = priority;
+        ids[e] = id;
+        ticks[e] = tick;
+        events[e] = event;
+        link(e, tick);
+        wheelSize++;
+    }
+
+    @Override
+    public double peekTime() {
+        advance();
+        return queue.peekTime();
+    }
+
+    @Override
+    public boolean headBefore(double time, int priority, long id) {
+        advance();
+        return queue.headBefore(time, priority, id);
+    }
+
+    @Override
+    public int peekPriority() {
+        advance();
+        return queue.peekPriority();
+    }
+
+    @Override
+    public Event poll() {
+        advance();
+        if (wheelSize == 0) {
+            // nothing bucketed, so the cursor can jump straight to the current tick
+            double head = queue.peekTime();
+            if (head < Environment.Infinity) cursor = Math.max(cursor, tickOf(head));
+        }
+        return queue.poll();
+    }
+
+    @Override
+    public int size() {
+        return wheelSize + queue.size();
+    }
+
+    @Override
+    public int removeIf(Predicate<Event> filter) {
+        int removed = 0;
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            int prev = -1;
+            int e = heads[bucket];
+            while (e >= 0) {
+                int following = next[e];
+                if (!filter.test(events[e])) {
+                    prev = e;
+                } else {
+                    if (prev < 0) {
+                        heads[bucket] = following;
+                    } else {
+                        next[prev] = following;
+                    }
+                    release(e);
+                    removed++;
+                }
+                e = following;
+            }
+            if (heads[bucket] < 0) {
+                occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+            }
+        }
+        wheelSize -= removed;
+        return removed + queue.removeIf(filter);
+    }
+
+    private long tickOf(double time) {
+        // the cast saturates, so infinite times land beyond any horizon
+        return (long) Math.floor(time / tickWidth);
+    }
+
+    /**
+     * @return level whose buckets separate {@code tick} from the cursor; {@code tick > cursor}
+     */
+    private int levelOf(long tick) {
+        return (63 - Long.numberOfLeadingZeros(tick ^ cursor)) / BITS;
+    }
+
+    private void link(int e, long tick) {
+        int level = levelOf(tick);
+        int slot = (int) (tick >> (level * BITS)) & (SLOTS - 1);
+        int bucket = level * SLOTS + slot;
+        next[e] = heads[bucket];
+        heads[bucket] = e;
+        occupied[level] |= 1L << slot;
+    }
+
+    /**
+     * Feed buckets to the wrapped queue until its head is known to precede every wheel entry.
+     * Comparing ticks rather than times keeps this exact: {@code floor(t / width)} is monotonic.
+     */
+    private void advance() {
+        while (wheelSize > 0) {
+            for (int level = 0; level < levels; level++) {
+                int shift = level * BITS;
+                int digit = (int) (cursor >> shift) & (SLOTS - 1);
+                long later = occupied[level] & (-2L << digit);
+                if (later == 0) continue;
+                int slot = Long.numberOfTrailingZeros(later);
+                long start = ((cursor >> (shift + BITS)) << (shift + BITS)) | ((long) slot << shift);
+                if (!queue.isEmpty() && tickOf(queue.peekTime()) < start) {
+                    return;
+                }
+                cascade(level, slot, start);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Move the cursor to the first tick of a bucket and redistribute the bucket: entries of that
+     * tick go to the wrapped queue, the rest to finer levels.
+     */
+    private void cascade(int level, int slot, long start) {
+        int bucket = level * SLOTS + slot;
+        int e = heads[bucket];
+        heads[bucket] = -1;
+        occupied[level] &= ~(1L << slot);
+        cursor = start;
+        while (e >= 0) {
+            int following = next[e];
+            if (ticks[e] == start) {
+                queue.add(times[e], priorities[e], ids[e], events[e]);
+                release(e);
+                wheelSize--;
+            } else {
+                link(e, ticks[e]);
+            }
+            e = following;
+        }
+    }
+
+    private int allocate() {
+        if (free >= 0) {
+            int e = free;
+            free = next[e];
+            return e;
+        }
+        if (used == times.length) {
+            int cap = used << 1;
+            times = Arrays.copyOf(times, cap);
+            priorities = Arrays.copyOf(priorities, cap);
+            ids = Arrays.copyOf(ids, cap);
+            ticks = Arrays.copyOf(ticks, cap);
+            events = Arrays.copyOf(events, cap);
+            next = Arrays.copyOf(next, cap);
+        }
+        return used++;
+    }
+
+    private void release(int e) {
+        events[e] = null;
+        next[e] = free;
+        free = e;
+    }
+
+}
@@ -31,6 +31,18 @@ public final class SimFunctions {
         });
     }
 
+    /**
+     * Start a threadless process after a certain delay.
+     *
+     * @param env   the environment
+     * @param first the first step of the process
+     * @param delay the delay
+     * @return the created process
+     */
+    public static Process startDelayed(Environment env, Process.Step first, double delay) {
+        return env.process((ctx, value) -> ctx.then(env.timeout(delay), first));
+    }
+
     /**
      * Run a task repeatedly at a fixed interval.
      * The task is executed immediately (at current time), then waited for interval, and so on.
@@ -41,10 +53,12 @@ public final class SimFunctions {
      * @return the process driving the loop
      */
     public static Process loop(Environment env, double interval, Runnable task) {
-        return env.process(ctx -> {
-            while (true) {
+        // threadless: each tick runs on the event loop and re-arms itself
+        return env.process(new Process.Step() {
+            @Override
+            public void resume(Process.StepContext ctx, Object value) {
                 task.run();
-                ctx.await(env.timeout(interval));
+                ctx.then(env.timeout(interval), this);
             }
         });
     }
@@ -75,11 +89,13 @@ public final class SimFunctions {
      * @return the process that waits
      */
     public static Process waitFor(Environment env, Supplier<Boolean> predicate, double pollingInterval) {
-        return env.process(ctx -> {
-            while (!predicate.get()) {
-                ctx.await(env.timeout(pollingInterval));
+        return env.process(new Process.Step() {
+            @Override
+            public void resume(Process.StepContext ctx, Object value) {
+                if (!predicate.get()) {
+                    ctx.then(env.timeout(pollingInterval), this);
+                }
             }
-            return null;
         });
     }
 }
@@ -0,0 +1,107 @@
+package com.jsimul.bench;
+
+import com.jsimul.core.ArrayHeapEventQueue;
+import com.jsimul.core.CalendarEventQueue;
+import com.jsimul.core.Environment;
+import com.jsimul.core.Event;
+import com.jsimul.core.EventQueue;
+import com.jsimul.core.HeapEventQueue;
+import com.jsimul.core.TimingWheelEventQueue;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Classic "hold" benchmark for {@link EventQueue} implementations: keep {@code n} events pending,
+ * repeatedly remove the head and insert a replacement at {@code head + Exp(1)}. Reports time,
+ * bytes allocated on the benchmark thread and GC cycles per queue.
+ *
+ * <p>Not a unit test; run manually after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes com.jsimul.bench.EventQueueBenchmark
+ * </pre>
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class EventQueueBenchmark {
+
+    private static final int[] SIZES = {100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final int HOLDS = 2_000_000;
+
+    private EventQueueBenchmark() {
+    }
+
+    private record Result(double nanosPerOp, double bytesPerOp, long gcCount) {
+    }
+
+    public static void main(String[] args) {
+        Map<String, Supplier<EventQueue>> queues = new LinkedHashMap<>();
+        queues.put("heap", HeapEventQueue::new);
+        queues.put("array-heap", ArrayHeapEventQueue::new);
+        queues.put("calendar", CalendarEventQueue::new);
+        queues.put("wheel", () -> new TimingWheelEventQueue(0.01));
+
+        System.out.printf("%-10s %-11s %10s %10s %6s%n", "pending", "queue", "ns/op", "B/op", "GCs");
+        for (int n : SIZES) {
+            for (Map.Entry<String, Supplier<EventQueue>> q : queues.entrySet()) {
+                Result r = measure(q.getValue(), n);
+                System.out.printf("%-10d %-11s %10.1f %10.1f %6d%n",
+                        n, q.getKey(), r.nanosPerOp(), r.bytesPerOp(), r.gcCount());
+            }
+        }
+    }
+
+    private static Result measure(Supplier<EventQueue> factory, int n) {
+        // one warm-up round, then the measured round
+        hold(factory.get(), n, HOLDS / 4);
+        return hold(factory.get(), n, HOLDS);
+    }
+
+    /**
+     * Prefill {@code n} entries, then measure {@code holds} poll/add pairs.
+     */
+    private static Result hold(EventQueue queue, int n, int holds) {
+        Environment env = new Environment();
+        Event[] events = new Event[64];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(env);
+        }
+        Random rnd = new Random(7);
+        long id = 0;
+        for (int i = 0; i < n; i++) {
+            queue.add(rnd.nextExponential(), Event.NORMAL, ++id, events[i & 63]);
+        }
+        long gcBefore = gcCount();
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < holds; i++) {
+            double now = queue.peekTime();
+            queue.poll();
+            queue.add(now + rnd.nextExponential(), Event.NORMAL, ++id, events[i & 63]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        return new Result(elapsed / (double) holds, bytes / (double) holds, gcCount() - gcBefore);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx) {
+            return mx.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,80 @@
+package com.jsimul.bench;
+
+import com.jsimul.core.Environment;
+import com.jsimul.core.Process;
+import com.jsimul.examples.FlowLineScenario;
+
+/**
+ * Measures process resume throughput: {@code processes} processes each await {@code awaits}
+ * unit timeouts, so every event processed hands control to a process and back. Threaded
+ * processes are compared with continuation mode and with threadless {@link Process.Step}
+ * processes, the latter also in a thread-confined environment. Also times one
+ * {@link FlowLineScenario} day as a process-heavy end-to-end workload.
+ *
+ * <p>Not a unit test; run manually after {@code mvn test-compile}:
+ * <pre>
+ * java --add-exports java.base/jdk.internal.vm=ALL-UNNAMED \
+ *      -cp target/classes:target/test-classes com.jsimul.bench.ProcessSwitchBenchmark
+ * </pre>
+ * Without the export the continuation row falls back to threads.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public final class ProcessSwitchBenchmark {
+
+    private ProcessSwitchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int awaits = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        // warm-up
+        for (Mode mode : Mode.values()) {
+            switches(mode, processes, awaits / 10);
+            double perSecond = switches(mode, processes, awaits);
+            System.out.printf("%-13s resumes/s (%d processes x %d awaits): %,.0f%n",
+                    mode.name().toLowerCase(), processes, awaits, perSecond);
+        }
+
+        FlowLineScenario.runOnce(new FlowLineScenario.Params(200, 1.2), 3, false);
+        long start = System.nanoTime();
+        FlowLineScenario.Stats stats = FlowLineScenario.runOnce(new FlowLineScenario.Params(2_000, 1.2), 3, false);
+        System.out.printf("FlowLineScenario 2000 jobs: %d completed in %.1f ms%n",
+                stats.completed(), (System.nanoTime() - start) / 1e6);
+    }
+
+    private enum Mode {
+        THREADED, CONTINUATION, STEP, CONFINED_STEP
+    }
+
+    private static double switches(Mode mode, int processes, int awaits) {
+        Environment env = Environment.builder()
+                .continuations(mode == Mode.CONTINUATION)
+                .threadConfined(mode == Mode.CONFINED_STEP)
+                .build();
+        for (int p = 0; p < processes; p++) {
+            if (mode == Mode.STEP || mode == Mode.CONFINED_STEP) {
+                env.process(new Process.Step() {
+                    int i;
+
+                    @Override
+                    public void resume(Process.StepContext ctx, Object value) {
+                        if (i++ < awaits) ctx.then(ctx.env().timeout(1.0), this);
+                    }
+                });
+                continue;
+            }
+            env.process(ctx -> {
+                for (int i = 0; i < awaits; i++) {
+                    ctx.await(ctx.env().timeout(1.0));
+                }
+                return null;
+            });
+        }
+        long start = System.nanoTime();
+        env.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return processes * (double) awaits / seconds;
+    }
+}
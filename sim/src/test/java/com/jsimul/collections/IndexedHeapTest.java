@@ -0,0 +1,99 @@
+package com.jsimul.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.core.Environment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IndexedHeap} and O(log n) withdrawal of priority waiters.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class IndexedHeapTest {
+
+    private static final class Item {
+        final int key;
+        int index = -1;
+
+        Item(int key) {
+            this.key = key;
+        }
+    }
+
+    private static final IndexedHeap.Positions<Item> POSITIONS = new IndexedHeap.Positions<>() {
+        @Override
+        public int get(Item item) {
+            return item.index;
+        }
+
+        @Override
+        public void set(Item item, int index) {
+            item.index = index;
+        }
+    };
+
+    @Test
+    void matchesPriorityQueueUnderRandomRemovals() {
+        Comparator<Item> byKey = Comparator.comparingInt(i -> i.key);
+        IndexedHeap<Item> heap = new IndexedHeap<>(byKey, POSITIONS);
+        PriorityQueue<Item> reference = new PriorityQueue<>(byKey);
+        List<Item> live = new ArrayList<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(4);
+            if (op < 2 || live.isEmpty()) {
+                Item item = new Item(random.nextInt(1_000));
+                heap.add(item);
+                reference.add(item);
+                live.add(item);
+            } else if (op == 2) {
+                Item item = live.remove(random.nextInt(live.size()));
+                assertTrue(heap.remove(item));
+                assertFalse(heap.remove(item));
+                reference.remove(item);
+                assertEquals(-1, item.index);
+            } else {
+                Item polled = heap.poll();
+                assertEquals(reference.poll().key, polled.key);
+                live.remove(polled);
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+        while (!heap.isEmpty()) {
+            assertEquals(reference.poll().key, heap.poll().key);
+        }
+    }
+
+    @Test
+    void timedOutWaitersLeaveThePriorityLine() {
+        Environment env = new Environment();
+        PriorityResource res = new PriorityResource(env, 1);
+        PriorityRequest holder = res.request(0);
+        List<PriorityRequest> waiters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // every third waiter gives up after 1 time unit
+            waiters.add(i % 3 == 0 ? res.request(i % 7, 1.0) : res.request(i % 7));
+            if (i % 3 == 0) waiters.get(i).asEvent().setDefused(true);
+        }
+        env.run(2.0);
+        assertEquals(66, res.waitingCount());
+
+        res.release(holder);
+        env.run(3.0);
+        PriorityRequest next = waiters.stream()
+                .filter(r -> !r.asEvent().triggered() || r.asEvent().ok())
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        assertTrue(next.asEvent().ok());
+        assertEquals(65, res.waitingCount());
+    }
+}
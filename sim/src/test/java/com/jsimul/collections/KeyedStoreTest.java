@@ -0,0 +1,135 @@
+package com.jsimul.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.core.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link KeyedStore}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class KeyedStoreTest {
+
+    private record Part(String sku, int serial) {
+    }
+
+    @Test
+    void getTakesOldestItemUnderItsKey() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 10, Part::sku);
+        store.put(new Part("bolt", 1));
+        store.put(new Part("nut", 2));
+        store.put(new Part("bolt", 3));
+        env.run();
+
+        KeyedStoreGet<String, Part> get = store.get("bolt");
+        assertEquals(new Part("bolt", 1), get.asEvent().value());
+        assertEquals(1, store.count("bolt"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void putWakesOnlyWaitersForItsKey() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 10, Part::sku);
+        KeyedStoreGet<String, Part> bolts = store.get("bolt");
+        KeyedStoreGet<String, Part> nuts = store.get("nut");
+        KeyedStoreGet<String, Part> either = store.getAny(List.of("washer", "nut"));
+
+        store.put(new Part("nut", 1));
+        store.put(new Part("nut", 2));
+        env.run();
+
+        assertFalse(bolts.asEvent().triggered());
+        assertEquals(new Part("nut", 1), nuts.asEvent().value());
+        assertEquals(new Part("nut", 2), either.asEvent().value());
+
+        store.put(new Part("washer", 3));
+        env.run();
+        // the any-of get left the washer queue once served
+        assertEquals(1, store.count("washer"));
+    }
+
+    @Test
+    void filterGetsRemainAFallbackInArrivalOrder() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 10, Part::sku);
+        KeyedStoreGet<String, Part> even = store.get(p -> p.serial() % 2 == 0);
+        KeyedStoreGet<String, Part> bolt = store.get("bolt");
+
+        store.put(new Part("bolt", 4));
+        store.put(new Part("bolt", 5));
+        env.run();
+
+        assertEquals(new Part("bolt", 4), even.asEvent().value());
+        assertEquals(new Part("bolt", 5), bolt.asEvent().value());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void fullStoreAdmitsPutsAsGetsFreeRoom() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 2, Part::sku);
+        List<KeyedStorePut<Part>> puts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            puts.add(store.put(new Part(i % 2 == 0 ? "a" : "b", i)));
+        }
+        puts.get(3).cancel();
+        env.run();
+        assertEquals(2, store.size());
+        assertFalse(puts.get(2).asEvent().triggered());
+
+        store.get("b");
+        env.run();
+        assertTrue(puts.get(2).asEvent().ok());
+        assertFalse(puts.get(3).asEvent().triggered());
+        assertEquals(2, store.count("a"));
+    }
+
+    @Test
+    void cancelledGetIsNotServed() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 10, Part::sku);
+        KeyedStoreGet<String, Part> first = store.getAny(List.of("a", "b"));
+        KeyedStoreGet<String, Part> second = store.get("b");
+        first.cancel();
+        store.put(new Part("b", 1));
+        env.run();
+        assertFalse(first.asEvent().triggered());
+        assertEquals(new Part("b", 1), second.asEvent().value());
+    }
+
+    @Test
+    void laterGetDoesNotOvertakeWaitersBeforeThePutIsProcessed() {
+        Environment env = new Environment();
+        KeyedStore<String, Part> store = new KeyedStore<>(env, 10, Part::sku);
+        KeyedStoreGet<String, Part> older = store.get("bolt");
+        KeyedStoreGet<String, Part> olderFilter = store.get(p -> p.serial() > 10);
+        // both items are stored now but only handed out when the puts are processed
+        store.put(new Part("bolt", 1));
+        store.put(new Part("nut", 11));
+        KeyedStoreGet<String, Part> later = store.get("bolt");
+        KeyedStoreGet<String, Part> laterAny = store.getAny(List.of("nut", "bolt"));
+        KeyedStoreGet<String, Part> laterFilter = store.get(p -> true);
+        assertFalse(later.asEvent().triggered());
+        assertFalse(laterAny.asEvent().triggered());
+        assertFalse(laterFilter.asEvent().triggered());
+
+        env.run();
+        assertEquals(new Part("bolt", 1), older.asEvent().value());
+        assertEquals(new Part("nut", 11), olderFilter.asEvent().value());
+        assertFalse(later.asEvent().triggered());
+
+        store.put(new Part("bolt", 2));
+        env.run();
+        assertEquals(new Part("bolt", 2), later.asEvent().value());
+        assertFalse(laterAny.asEvent().triggered());
+    }
+}
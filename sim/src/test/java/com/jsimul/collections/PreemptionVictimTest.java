@@ -0,0 +1,64 @@
+package com.jsimul.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.core.Environment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for heap-based victim selection in {@link PreemptiveResource}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class PreemptionVictimTest {
+
+    @Test
+    void preemptsTheWorstUserOfALargePool() {
+        Environment env = new Environment();
+        int capacity = 1_000;
+        PreemptiveResource res = new PreemptiveResource(env, capacity);
+        Random random = new Random(7);
+        List<PreemptiveRequest> holders = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            PreemptiveRequest req = res.request(10 + random.nextInt(50));
+            req.asEvent().setDefused(true);
+            holders.add(req);
+        }
+        for (int round = 0; round < 200; round++) {
+            PreemptiveRequest expected = holders.stream()
+                    .filter(r -> !r.isPreempted())
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+            PreemptiveRequest intruder = res.request(random.nextInt(10));
+            intruder.asEvent().setDefused(true);
+            assertTrue(expected.isPreempted());
+            assertEquals(capacity, res.count());
+            holders.add(intruder);
+        }
+        assertEquals(200, res.preemptionCount());
+    }
+
+    @Test
+    void equalPriorityPreemptsTheLatestHolder() {
+        Environment env = new Environment();
+        PreemptiveResource res = new PreemptiveResource(env, 2);
+        PreemptiveRequest first = res.request(5);
+        PreemptiveRequest second = res.request(5);
+        second.asEvent().setDefused(true);
+        PreemptiveRequest urgent = res.request(1);
+        assertFalse(first.isPreempted());
+        assertTrue(second.isPreempted());
+        assertTrue(urgent.asEvent().triggered());
+
+        res.release(first);
+        env.run();
+        assertEquals(1, res.count());
+    }
+}
@@ -32,4 +32,21 @@ public class PriorityResourceTimeoutTest {
         // holder still holds
         assertEquals(1, res.count());
     }
+
+    @Test
+    void grantedRequestCancelsItsTimeout() {
+        Environment env = new Environment();
+        PriorityResource res = new PriorityResource(env, 1);
+
+        PriorityRequest holder = res.request(5, 100.0);
+        PriorityRequest queued = res.request(1, 1_000.0);
+        env.step(); // grant holder
+        assertEquals(1, env.scheduledCount()); // only the queued request's timeout is left
+
+        res.release(holder); // grants the queued request
+        env.run();
+
+        assertTrue(queued.asEvent().ok());
+        assertEquals(0.0, env.now());
+    }
 }
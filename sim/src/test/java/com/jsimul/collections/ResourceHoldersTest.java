@@ -0,0 +1,71 @@
+package com.jsimul.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.core.Environment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for slot-indexed holder tracking in {@link Resource}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ResourceHoldersTest {
+
+    @Test
+    void usersViewTracksGrantsAndReleases() {
+        Environment env = new Environment();
+        Resource res = new Resource(env, 100);
+        List<Request> granted = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            granted.add(res.request());
+        }
+        Request waiting = res.request();
+        assertEquals(100, res.users().size());
+        assertFalse(res.users().contains(waiting));
+
+        for (int i = 0; i < 100; i += 3) {
+            res.release(granted.get(i));
+        }
+        env.run();
+
+        assertEquals(67, res.count());
+        assertTrue(res.users().contains(waiting));
+        List<Request> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            if (i % 3 != 0) expected.add(granted.get(i));
+        }
+        expected.add(waiting);
+        assertEquals(new HashSet<>(expected), new HashSet<>(res.users()));
+    }
+
+    @Test
+    void usersViewIsReadOnly() {
+        Environment env = new Environment();
+        Resource res = new Resource(env, 1);
+        Request req = res.request();
+        assertThrows(UnsupportedOperationException.class, () -> res.users().remove(req));
+        assertThrows(UnsupportedOperationException.class, () -> res.users().clear());
+        assertEquals(1, res.count());
+    }
+
+    @Test
+    void releaseRejectsRequestsOfAnotherResource() {
+        Environment env = new Environment();
+        Resource a = new Resource(env, 1);
+        Resource b = new Resource(env, 1);
+        Request fromA = a.request();
+        b.request();
+        assertThrows(IllegalArgumentException.class, () -> b.release(fromA));
+        a.release(fromA);
+        env.run();
+        assertEquals(0, a.count());
+        assertEquals(1, b.count());
+    }
+}
@@ -0,0 +1,94 @@
+package com.jsimul.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.core.Environment;
+import com.jsimul.core.SimEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the linked {@link WaitQueue} behind {@link BaseResource}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class WaitQueueTest {
+
+    @Test
+    void removeKeepsOrderAndUnlinksTheNode() {
+        WaitQueue<String> queue = new WaitQueue<>();
+        WaitQueue.Node<String> a = queue.add("a");
+        WaitQueue.Node<String> b = queue.add("b");
+        WaitQueue.Node<String> c = queue.add("c");
+        queue.add("d");
+
+        assertTrue(queue.remove(b));
+        assertFalse(queue.remove(b));
+        assertTrue(queue.remove(c));
+        // removed nodes hold no links; a scan parked on one resumes from the head
+        assertNull(b.next);
+        assertNull(c.prev);
+        assertEquals("a", queue.next(c).item);
+        assertEquals("d", queue.next(a).item);
+
+        List<String> left = new ArrayList<>();
+        for (WaitQueue.Node<String> n = queue.first(); n != null; n = queue.next(n)) {
+            left.add(n.item);
+        }
+        assertEquals(List.of("a", "d"), left);
+        assertEquals(2, queue.size());
+        assertTrue(queue.remove(a));
+        assertEquals("d", queue.first().item);
+    }
+
+    @Test
+    void cancelledRequestLeavesTheLine() {
+        Environment env = new Environment();
+        Resource res = new Resource(env, 1);
+        Request holder = res.request();
+        List<Request> waiters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            waiters.add(res.request());
+        }
+        waiters.get(0).cancel();
+        waiters.get(2).cancel();
+        assertEquals(3, res.core().putQueueSize());
+
+        res.release(holder);
+        env.run();
+        assertTrue(waiters.get(1).asEvent().ok());
+        assertFalse(waiters.get(3).asEvent().triggered());
+        assertFalse(waiters.get(0).asEvent().triggered());
+    }
+
+    @Test
+    void scanStopsAtTheFirstWaiterThatCannotProceed() {
+        Environment env = new Environment();
+        int[] putChecks = new int[1];
+        SimpleResource base = new SimpleResource(env, 1,
+                (p, res) -> {
+                    putChecks[0]++;
+                    return false;
+                },
+                (g, res) -> {
+                    g.asEvent().succeed(null);
+                    return true;
+                });
+        for (int i = 0; i < 1_000; i++) {
+            base.put();
+        }
+        putChecks[0] = 0;
+        for (int i = 0; i < 100; i++) {
+            SimEvent get = base.get();
+            assertTrue(get.asEvent().triggered());
+        }
+        env.run();
+        // one head-of-line check per completed get rather than one per queued put
+        assertEquals(100, putChecks[0]);
+        assertEquals(1_000, base.putQueueSize());
+    }
+}
@@ -0,0 +1,89 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the struct-of-arrays {@link ArrayHeapEventQueue}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ArrayHeapEventQueueTest {
+
+    @Test
+    void matchesReferenceHeapOrder() {
+        Environment env = new Environment();
+        EventQueue reference = new HeapEventQueue();
+        EventQueue queue = new ArrayHeapEventQueue(4);
+        Random rnd = new Random(3);
+        long id = 0;
+        for (int round = 0; round < 20_000; round++) {
+            int adds = rnd.nextInt(4);
+            for (int a = 0; a < adds; a++) {
+                Event e = new Event(env);
+                double t = rnd.nextInt(50) * 0.5;
+                int prio = rnd.nextInt(3) - 1;
+                reference.add(t, prio, ++id, e);
+                queue.add(t, prio, id, e);
+            }
+            if (rnd.nextBoolean()) {
+                double t = reference.peekTime();
+                assertEquals(t, queue.peekTime());
+                assertSame(reference.poll(), queue.poll());
+            }
+            assertEquals(reference.size(), queue.size());
+        }
+        while (!reference.isEmpty()) {
+            assertSame(reference.poll(), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertEquals(Environment.Infinity, queue.peekTime());
+    }
+
+    @Test
+    void headBeforeComparesFullKey() {
+        Environment env = new Environment();
+        ArrayHeapEventQueue queue = new ArrayHeapEventQueue();
+        assertFalse(queue.headBefore(0, 0, 0));
+        queue.add(1.0, Event.NORMAL, 5, new Event(env));
+        assertTrue(queue.headBefore(2.0, Event.URGENT, 1));
+        assertTrue(queue.headBefore(1.0, Event.NORMAL, 6));
+        assertFalse(queue.headBefore(1.0, Event.URGENT, 9));
+        assertFalse(queue.headBefore(1.0, Event.NORMAL, 5));
+    }
+
+    @Test
+    void steadyStateHoldDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        Environment env = new Environment();
+        Event[] pool = {new Event(env), new Event(env), new Event(env), new Event(env)};
+        ArrayHeapEventQueue queue = new ArrayHeapEventQueue();
+        long id = 0;
+        for (int i = 0; i < 1_000; i++) {
+            queue.add(i, Event.NORMAL, ++id, pool[i & 3]);
+        }
+        hold(queue, pool, id, 50_000);
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        hold(queue, pool, id + 50_000, 200_000);
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+        assertEquals(1_000, queue.size());
+    }
+
+    private static void hold(ArrayHeapEventQueue queue, Event[] pool, long id, int holds) {
+        for (int i = 0; i < holds; i++) {
+            double t = queue.peekTime();
+            queue.poll();
+            queue.add(t + (i % 17), Event.NORMAL, ++id, pool[i & 3]);
+        }
+    }
+}
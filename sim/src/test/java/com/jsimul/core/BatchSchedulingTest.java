@@ -0,0 +1,191 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Environment#scheduleAll} and for draining same-time events in batches.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class BatchSchedulingTest {
+
+    @Test
+    void scheduleAllMatchesSchedulingOneByOne() {
+        List<String> bulk = new ArrayList<>();
+        List<String> single = new ArrayList<>();
+        for (List<String> log : List.of(bulk, single)) {
+            Environment env = new Environment();
+            env.timeout(2.0).asEvent().addCallback(e -> log.add("before"));
+            List<Event> events = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Event e = env.event().markOk(null);
+                String name = "e" + i;
+                e.addCallback(ev -> log.add(name));
+                events.add(e);
+            }
+            if (log == bulk) {
+                env.scheduleAll(events, Event.NORMAL, 2.0);
+            } else {
+                events.forEach(e -> env.schedule(e, Event.NORMAL, 2.0));
+            }
+            env.timeout(2.0).asEvent().addCallback(e -> log.add("after"));
+            env.run();
+        }
+        assertEquals(102, bulk.size());
+        assertEquals(single, bulk);
+    }
+
+    @Test
+    void urgentEventScheduledMidBatchRunsBeforeTheRest() {
+        Environment env = new Environment();
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String name = "t" + i;
+            env.timeout(1.0).asEvent().addCallback(e -> {
+                log.add(name);
+                if (name.equals("t2")) {
+                    Event urgent = env.event();
+                    urgent.addCallback(u -> log.add("urgent"));
+                    urgent.markOk(null);
+                    env.schedule(urgent, Event.URGENT, 0);
+                    Event normal = env.event();
+                    normal.addCallback(n -> log.add("normal"));
+                    normal.markOk(null);
+                    env.schedule(normal, Event.NORMAL, 0);
+                }
+            });
+        }
+        env.run();
+        assertEquals(List.of("t0", "t1", "t2", "urgent", "t3", "t4", "t5", "t6", "t7", "t8", "t9",
+                "normal"), log);
+    }
+
+    @Test
+    void pendingBatchIsVisibleAndCancellable() {
+        Environment env = new Environment();
+        List<Integer> log = new ArrayList<>();
+        List<Timeout> timers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            Timeout t = env.timeout(3.0);
+            t.asEvent().addCallback(e -> log.add(n));
+            timers.add(t);
+        }
+        env.step();
+        assertEquals(4, env.scheduledCount());
+        assertEquals(3.0, env.peek());
+        assertTrue(timers.get(2).cancel());
+        env.run();
+        assertEquals(List.of(0, 1, 3, 4), log);
+    }
+
+    @Test
+    void tombstonesSkippedInsideABatchAreCounted() {
+        HeapEventQueue heap = new HeapEventQueue();
+        int[] compactions = new int[1];
+        EventQueue counting = new EventQueue() {
+            @Override
+            public void add(double time, int priority, long id, Event event) {
+                heap.add(time, priority, id, event);
+            }
+
+            @Override
+            public double peekTime() {
+                return heap.peekTime();
+            }
+
+            @Override
+            public int peekPriority() {
+                return heap.peekPriority();
+            }
+
+            @Override
+            public boolean headBefore(double time, int priority, long id) {
+                return heap.headBefore(time, priority, id);
+            }
+
+            @Override
+            public Event poll() {
+                return heap.poll();
+            }
+
+            @Override
+            public int size() {
+                return heap.size();
+            }
+
+            @Override
+            public int removeIf(Predicate<Event> filter) {
+                compactions[0]++;
+                return heap.removeIf(filter);
+            }
+        };
+        Environment env = new Environment(0, counting);
+        for (int round = 0; round < 10; round++) {
+            List<Timeout> timers = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                timers.add(env.timeout(1.0));
+            }
+            // 40 dead entries per round stay below the compaction threshold, but would pass it
+            // in the second round if the ones dropped from the batch were not counted
+            for (int i = 10; i < 50; i++) {
+                assertTrue(timers.get(i).cancel());
+            }
+            env.run();
+        }
+        assertEquals(0, compactions[0]);
+        assertEquals(10.0, env.now());
+    }
+
+    @Test
+    void batchIsHandedOutWithoutTakingTheQueueLockPerEvent() throws Exception {
+        Environment env = new Environment();
+        int[] fired = new int[1];
+        for (int i = 0; i < 50; i++) {
+            env.timeout(1.0).asEvent().addCallback(e -> fired[0]++);
+        }
+        env.step(); // drains the whole batch under the lock
+        assertEquals(1, fired[0]);
+
+        Field field = Environment.class.getDeclaredField("queueLock");
+        field.setAccessible(true);
+        Object queueLock = field.get(env);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (queueLock) {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        held.await();
+        try {
+            // the rest of the batch must not need the lock another thread is holding
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 1; i < 50; i++) {
+                    env.step();
+                }
+            });
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        assertEquals(50, fired[0]);
+        assertEquals(Environment.Infinity, env.peek());
+    }
+}
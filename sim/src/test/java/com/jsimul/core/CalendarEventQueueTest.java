@@ -0,0 +1,128 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies {@link CalendarEventQueue} hands out entries in exactly the same order as the heap.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class CalendarEventQueueTest {
+
+    @Test
+    void matchesHeapOrderUnderRandomHoldModel() {
+        Environment env = new Environment();
+        EventQueue heap = new HeapEventQueue();
+        EventQueue calendar = new CalendarEventQueue(0.5);
+        Random rnd = new Random(42);
+        long id = 0;
+        double now = 0;
+        for (int i = 0; i < 5_000; i++) {
+            Event e = new Event(env);
+            double t = now + rnd.nextInt(20) * 0.25;
+            int prio = rnd.nextInt(2);
+            heap.add(t, prio, ++id, e);
+            calendar.add(t, prio, id, e);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(heap.peekTime(), calendar.peekTime());
+            now = heap.peekTime();
+            assertSame(heap.poll(), calendar.poll());
+            int adds = rnd.nextInt(3);
+            for (int a = 0; a < adds; a++) {
+                Event e = new Event(env);
+                double t = now + rnd.nextExponential() * 3;
+                int prio = rnd.nextInt(2);
+                heap.add(t, prio, ++id, e);
+                calendar.add(t, prio, id, e);
+            }
+            assertEquals(heap.size(), calendar.size());
+        }
+        List<Event> rest = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            rest.add(heap.poll());
+        }
+        for (Event e : rest) {
+            assertSame(e, calendar.poll());
+        }
+        assertTrue(calendar.isEmpty());
+        assertEquals(Environment.Infinity, calendar.peekTime());
+        assertNull(calendar.poll());
+    }
+
+    @Test
+    void sameTimeEntriesFollowPriorityThenId() {
+        Environment env = new Environment();
+        CalendarEventQueue queue = new CalendarEventQueue();
+        Event normalFirst = new Event(env);
+        Event urgent = new Event(env);
+        Event normalSecond = new Event(env);
+        queue.add(3.0, Event.NORMAL, 1, normalFirst);
+        queue.add(3.0, Event.NORMAL, 3, normalSecond);
+        queue.add(3.0, Event.URGENT, 2, urgent);
+
+        assertSame(urgent, queue.poll());
+        assertSame(normalFirst, queue.poll());
+        assertSame(normalSecond, queue.poll());
+    }
+
+    @Test
+    void earlierInsertAfterDequeueIsServedFirst() {
+        Environment env = new Environment();
+        CalendarEventQueue queue = new CalendarEventQueue(1.0);
+        Event late = new Event(env);
+        Event early = new Event(env);
+        queue.add(100.0, Event.NORMAL, 1, late);
+        assertEquals(100.0, queue.peekTime());
+        queue.add(2.0, Event.NORMAL, 2, early);
+        assertSame(early, queue.poll());
+        assertSame(late, queue.poll());
+    }
+
+    @Test
+    void resizesWithPopulation() {
+        Environment env = new Environment();
+        CalendarEventQueue queue = new CalendarEventQueue();
+        for (int i = 0; i < 1_000; i++) {
+            queue.add(i * 0.01, Event.NORMAL, i, new Event(env));
+        }
+        assertTrue(queue.bucketCount() >= 512);
+        while (queue.size() > 4) {
+            queue.poll();
+        }
+        assertTrue(queue.bucketCount() <= 16);
+    }
+
+    @Test
+    void environmentRunsOnCalendarQueue() {
+        Environment env = new Environment(0.0, new CalendarEventQueue());
+        List<String> trace = new ArrayList<>();
+        env.process(ctx -> {
+            ctx.await(env.timeout(2.0));
+            trace.add("a@" + env.now());
+            return null;
+        });
+        env.process(ctx -> {
+            ctx.await(env.timeout(1.0));
+            trace.add("b@" + env.now());
+            return null;
+        });
+        env.run();
+        assertEquals(List.of("b@1.0", "a@2.0"), trace);
+    }
+
+    @Test
+    void rejectsNonEmptyQueue() {
+        Environment env = new Environment();
+        EventQueue queue = new HeapEventQueue();
+        queue.add(1.0, Event.NORMAL, 1, new Event(env));
+        assertThrows(IllegalArgumentException.class, () -> new Environment(0.0, queue));
+    }
+}
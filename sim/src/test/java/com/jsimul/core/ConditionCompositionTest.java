@@ -82,8 +82,8 @@ public class ConditionCompositionTest {
 
         // equality with itself and another identical ConditionValue
         ConditionValue cv2 = new ConditionValue();
-        cv2.add(a.asEvent());
-        cv2.add(b.asEvent());
+        cv2.toMap().put(a.asEvent(), a.asEvent().value());
+        cv2.toMap().put(b.asEvent(), b.asEvent().value());
         assertEquals(cv, cv2);
         assertEquals(cv.hashCode(), cv2.hashCode());
     }
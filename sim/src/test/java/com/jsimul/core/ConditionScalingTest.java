@@ -0,0 +1,65 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Large and duplicate-heavy {@link Condition}s: linear construction and lazily built values.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ConditionScalingTest {
+
+    @Test
+    void allOfOverManyOperandsEvaluatesOncePerOperand() {
+        Environment env = new Environment();
+        List<Event> jobs = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            jobs.add(env.timeout(1 + i % 100, i).asEvent());
+        }
+        int[] evaluations = new int[1];
+        Condition barrier = new Condition(env, (events, count) -> {
+            evaluations[0]++;
+            return Condition.allEvents(events, count);
+        }, jobs);
+        env.run(barrier);
+
+        assertEquals(100.0, env.now());
+        // the construction-time check plus one per operand completion, with no rescans
+        assertEquals(100_001, evaluations[0]);
+        assertEquals(100_000, barrier.operandCount());
+        ConditionValue cv = (ConditionValue) barrier.asEvent().value();
+        assertEquals(100_000, cv.toMap().size());
+        assertEquals(42, cv.get(jobs.get(42)));
+    }
+
+    @Test
+    void duplicateOperandsCountOnce() {
+        Environment env = new Environment();
+        Timeout a = env.timeout(1.0, "A");
+        Timeout b = env.timeout(2.0, "B");
+        SimEvent all = env.allOf(a, a.asEvent(), b, a);
+        env.run(all);
+        assertEquals(2.0, env.now());
+        ConditionValue cv = (ConditionValue) all.asEvent().value();
+        assertEquals(List.of(a.asEvent(), b.asEvent()), List.copyOf(cv.toMap().keySet()));
+    }
+
+    @Test
+    void lazyValueOnlyHoldsOperandsProcessedWithTheCondition() {
+        Environment env = new Environment();
+        Timeout fast = env.timeout(1.0, "fast");
+        Timeout slow = env.timeout(2.0, "slow");
+        Timeout inner = env.timeout(3.0, "inner");
+        SimEvent any = env.anyOf(fast, slow, env.anyOf(inner));
+        env.run();
+        // read long after the slower operands were processed
+        ConditionValue cv = (ConditionValue) any.asEvent().value();
+        assertEquals(List.of(fast.asEvent()), List.copyOf(cv.toMap().keySet()));
+    }
+}
@@ -2,6 +2,8 @@ package com.jsimul.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -37,4 +39,17 @@ public class ConditionTest {
         assertEquals(1, cv.toMap().size());
         assertTrue(cv.contains(b.asEvent()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void valueIncludesOperandsProcessedAtTheSameInstantAfterTheTrigger() {
+        Environment env = new Environment();
+        Event e1 = env.event();
+        Event e2 = env.event();
+        Event any = new AnyOf(env, e1, e2).asEvent();
+        e1.succeed("one");
+        e2.succeed("two");
+        env.run();
+        ConditionValue cv = (ConditionValue) any.value();
+        assertEquals(Map.of(e1, "one", e2, "two"), cv.toMap());
+    }
+}
@@ -2,6 +2,10 @@ package com.jsimul.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.Test;
@@ -54,4 +58,55 @@ public class ConditionValueSemanticsTest {
         assertFalse(all.asEvent().ok());
         assertTrue(all.asEvent().isDefused());
     }
+
+    @Test
+    void viewAgreesWithMaterializedMap() {
+        Environment env = new Environment();
+        Timeout a = env.timeout(1.0, "A");
+        Timeout b = env.timeout(2.0, null);
+        Timeout c = env.timeout(3.0, "C");
+        SimEvent any = env.anyOf(a, b, c);
+        SimEvent both = env.allOf(a, b);
+        env.run();
+
+        ConditionValue first = (ConditionValue) any.asEvent().value();
+        ConditionValue pair = (ConditionValue) both.asEvent().value();
+        assertEquals(1, first.size());
+        assertIterableEquals(List.of(a.asEvent(), b.asEvent()), pair.events());
+        assertIterableEquals(Arrays.asList("A", null), pair.values());
+
+        Map<Event, Object> expected = new LinkedHashMap<>();
+        expected.put(a.asEvent(), "A");
+        expected.put(b.asEvent(), null);
+        int viewHash = pair.hashCode();
+        assertEquals(pair, expected);
+        assertNotEquals(first, expected);
+        assertNotEquals(pair, Map.of(a.asEvent(), "A", c.asEvent(), "C"));
+        // materializing keeps equality and hashing stable
+        assertEquals(expected, pair.toMap());
+        assertEquals(viewHash, pair.hashCode());
+    }
+
+    @Test
+    void viewHoldsOperandsProcessedWithTheCondition() {
+        Environment env = new Environment();
+        Event a = env.event();
+        Event b = env.event();
+        Timeout later = env.timeout(1.0, "later");
+        SimEvent any = env.anyOf(a, b, later);
+        a.succeed("A");
+        b.succeed("B");
+
+        env.step();
+        ConditionValue cv = (ConditionValue) any.asEvent().value();
+        // triggered by a but not processed yet: nothing is fixed and nothing is cached
+        assertTrue(cv.isEmpty());
+        assertTrue(cv.toMap().isEmpty());
+
+        env.run();
+        assertEquals(2, cv.size());
+        assertIterableEquals(List.of(a, b), cv.events());
+        assertEquals(cv, Map.of(a, "A", b, "B"));
+        assertEquals(Map.of(a, "A", b, "B"), cv.toMap());
+    }
 }
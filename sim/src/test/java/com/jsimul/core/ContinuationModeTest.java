@@ -0,0 +1,111 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for running process bodies as continuations on the event loop thread. Surefire passes
+ * the required {@code --add-exports}; the mode-specific tests are skipped if it is missing.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ContinuationModeTest {
+
+    private static Environment continuationEnv() {
+        Environment env = Environment.builder().continuations(true).build();
+        assumeTrue(env.usesContinuations(), "jdk.internal.vm not exported");
+        return env;
+    }
+
+    @Test
+    void defaultEnvironmentUsesThreads() {
+        assertFalse(new Environment().usesContinuations());
+        assertFalse(Environment.builder().build().usesContinuations());
+    }
+
+    @Test
+    void bodiesRunOnTheCallingThread() {
+        Environment env = continuationEnv();
+        List<Thread> threads = new ArrayList<>();
+        Process p = env.process(ctx -> {
+            threads.add(Thread.currentThread());
+            ctx.await(ctx.env().timeout(1));
+            threads.add(Thread.currentThread());
+            return "done";
+        });
+        assertEquals("done", env.run(p));
+        assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), threads);
+    }
+
+    @Test
+    void unchangedProcessCodeKeepsOrderAndSemantics() {
+        List<String> threaded = trace(new Environment());
+        List<String> continued = trace(continuationEnv());
+        assertEquals(threaded, continued);
+    }
+
+    private static List<String> trace(Environment env) {
+        List<String> log = new ArrayList<>();
+        Process worker = env.process(ctx -> {
+            try {
+                for (int i = 0; i < 5; i++) {
+                    ctx.await(ctx.env().timeout(2));
+                    log.add("tick" + i + "@" + ctx.env().now());
+                }
+                return "finished";
+            } catch (Interrupt ex) {
+                log.add("interrupted:" + ex.cause() + "@" + ctx.env().now());
+                return "interrupted";
+            }
+        });
+        env.process(ctx -> {
+            ctx.await(ctx.env().timeout(5));
+            worker.interrupt("stop");
+            log.add("result:" + ctx.await(worker));
+            return null;
+        });
+        Process failing = env.process(ctx -> {
+            ctx.await(ctx.env().timeout(1));
+            throw new IllegalStateException("boom");
+        });
+        failing.asEvent().setDefused(true);
+        env.run();
+        log.add("failed:" + ((Throwable) failing.asEvent().value()).getMessage());
+        return log;
+    }
+
+    @Test
+    void manyProcessesNeedNoThreads() {
+        Environment env = continuationEnv();
+        int[] done = {0};
+        for (int p = 0; p < 10_000; p++) {
+            env.process(ctx -> {
+                ctx.await(ctx.env().timeout(1));
+                ctx.await(ctx.env().timeout(1));
+                done[0]++;
+                return null;
+            });
+        }
+        env.run();
+        assertEquals(10_000, done[0]);
+        assertEquals(2.0, env.now());
+    }
+
+    @Test
+    void awaitInsideMonitorFailsTheProcess() {
+        Environment env = continuationEnv();
+        Object lock = new Object();
+        Process p = env.process(ctx -> {
+            synchronized (lock) {
+                return ctx.await(ctx.env().timeout(1));
+            }
+        });
+        assertThrows(IllegalStateException.class, () -> env.run(p));
+    }
+}
@@ -59,7 +59,7 @@ public class EnvironmentFactoryTest {
         // captured.get() is null. So callback didn't run or value was null.
         // signal.markOk("manual") sets value="manual".
         // schedule() adds to queue.
-        // run(signal) -> runInternal -> step -> detachCallbacks -> call.
+        // run(signal) -> runInternal -> step -> dispatchCallbacks -> call.
         // So callback should run.
         // Maybe schedule() creates a Scheduled wrapper, but signal is the event.
         
@@ -17,19 +17,15 @@ public class EnvironmentTest {
         Timeout t1 = new Timeout(env, 5);
         Timeout t2 = new Timeout(env, 1);
         
-        // t2 trigger (at t=1.0)
-        env.step(); 
-        // t2 inner scheduled at t=1.0
-        env.step(); 
-        
-        assertEquals(1.0, env.now());
-        
-        // t1 trigger (at t=5.0)
+        // each timeout is scheduled once, directly at its due time
         env.step();
-        // t1 inner scheduled at t=5.0
+        assertEquals(1.0, env.now());
+        assertTrue(t2.asEvent().isProcessed());
+
         env.step();
-        
         assertEquals(5.0, env.now());
+        assertTrue(t1.asEvent().isProcessed());
+        assertEquals(0, env.scheduledCount());
     }
 
     @Test
@@ -0,0 +1,119 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the inline-first, spill-on-demand callback storage in {@link Event}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class EventCallbackStorageTest {
+
+    @Test
+    void callbacksRunInRegistrationOrder() {
+        for (int n = 0; n <= 9; n++) {
+            Environment env = new Environment();
+            Event e = env.event();
+            List<Integer> order = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                int k = i;
+                e.addCallback(x -> order.add(k));
+                expected.add(i);
+            }
+            assertFalse(e.isProcessed());
+            e.succeed(null);
+            env.run();
+            assertTrue(e.isProcessed());
+            assertEquals(expected, order);
+        }
+    }
+
+    @Test
+    void removeKeepsRemainingOrder() {
+        Environment env = new Environment();
+        Event e = env.event();
+        List<String> order = new ArrayList<>();
+        Event.Callback a = x -> order.add("a");
+        Event.Callback b = x -> order.add("b");
+        Event.Callback c = x -> order.add("c");
+        e.addCallback(a);
+        e.addCallback(b);
+        e.addCallback(c);
+        e.removeCallback(a);
+        e.removeCallback(c);
+        e.addCallback(a);
+        e.removeCallback(x -> { });
+        e.succeed(null);
+        env.run();
+        assertEquals(List.of("b", "a"), order);
+
+        Event single = env.event();
+        single.addCallback(a);
+        single.removeCallback(a);
+        single.succeed(null);
+        env.run();
+        assertEquals(List.of("b", "a"), order);
+    }
+
+    @Test
+    void registrationsDuringAndAfterProcessingAreIgnored() {
+        Environment env = new Environment();
+        Event e = env.event();
+        List<String> order = new ArrayList<>();
+        e.addCallback(x -> {
+            order.add("first");
+            x.addCallback(y -> order.add("late"));
+        });
+        e.succeed(null);
+        env.run();
+        e.addCallback(x -> order.add("after"));
+        assertEquals(List.of("first"), order);
+        assertTrue(EventCallbacks.detach(e).isEmpty());
+    }
+
+    @Test
+    void detachReturnsPendingCallbacksAndMarksProcessed() {
+        Environment env = new Environment();
+        Event e = env.event();
+        Event.Callback a = x -> { };
+        Event.Callback b = x -> { };
+        e.addCallback(a);
+        e.addCallback(b);
+        assertEquals(List.of(a, b), EventCallbacks.detach(e));
+        assertTrue(e.isProcessed());
+    }
+
+    @Test
+    void singleCallbackNeedsNoExtraStorage() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        Environment env = new Environment();
+        Event.Callback cb = x -> { };
+        Event[] keep = new Event[20_000];
+        fill(env, cb, keep);
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        fill(env, cb, keep);
+        long perEvent = (mx.getThreadAllocatedBytes(tid) - before) / keep.length;
+        // the event object alone; an eager ArrayList plus its backing array added ~80 bytes
+        assertTrue(perEvent <= 48, "bytes per event: " + perEvent);
+    }
+
+    private static void fill(Environment env, Event.Callback cb, Event[] keep) {
+        for (int i = 0; i < keep.length; i++) {
+            Event e = new Event(env);
+            e.addCallback(cb);
+            keep[i] = e;
+        }
+    }
+}
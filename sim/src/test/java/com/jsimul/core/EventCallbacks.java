@@ -0,0 +1,36 @@
+package com.jsimul.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test helper for inspecting the callbacks registered on an {@link Event}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+final class EventCallbacks {
+
+    private EventCallbacks() {
+    }
+
+    /**
+     * Detach the callbacks of {@code event} without invoking them; the event counts as processed
+     * afterwards.
+     *
+     * @return the callbacks in registration order, empty if the event was already processed
+     */
+    static List<Event.Callback> detach(Event event) {
+        Object current = event.takeCallbacks();
+        List<Event.Callback> callbacks = new ArrayList<>();
+        if (current instanceof Event.Callback single) {
+            callbacks.add(single);
+        } else if (current instanceof Event.Callback[] spill) {
+            for (Event.Callback cb : spill) {
+                if (cb == null) break;
+                callbacks.add(cb);
+            }
+        }
+        return callbacks;
+    }
+}
@@ -0,0 +1,98 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Environment#cancel(Event)} and {@link Timeout#cancel()}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class EventCancellationTest {
+
+    @Test
+    void cancelledTimeoutNeverFiresNorAdvancesTime() {
+        Environment env = new Environment();
+        List<Double> fired = new ArrayList<>();
+        Timeout far = env.timeout(100.0);
+        far.asEvent().addCallback(e -> fired.add(env.now()));
+        env.timeout(1.0).asEvent().addCallback(e -> fired.add(env.now()));
+
+        assertTrue(far.cancel());
+        assertFalse(far.cancel());
+        assertTrue(far.asEvent().isCancelled());
+        env.run();
+
+        assertEquals(List.of(1.0), fired);
+        assertEquals(1.0, env.now());
+        assertFalse(far.asEvent().isProcessed());
+    }
+
+    @Test
+    void cancelZeroDelayEventInLane() {
+        Environment env = new Environment();
+        Event e = env.event();
+        List<String> log = new ArrayList<>();
+        e.addCallback(ev -> log.add("e"));
+        e.succeed(null);
+        assertTrue(env.cancel(e));
+        env.run();
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    void processedEventCannotBeCancelled() {
+        Environment env = new Environment();
+        Timeout t = env.timeout(1.0);
+        env.run();
+        assertFalse(t.cancel());
+    }
+
+    @Test
+    void tombstonesAreCompactedWhenTheyDominate() {
+        for (EventQueue queue : List.of(new ArrayHeapEventQueue(), new HeapEventQueue(),
+                new CalendarEventQueue(), new TimingWheelEventQueue(1.0))) {
+            Environment env = new Environment(0, queue);
+            List<Timeout> timers = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                timers.add(env.timeout(1 + i % 500));
+            }
+            for (int i = 0; i < 1_000; i++) {
+                if (i % 5 < 3) timers.get(i).cancel();
+            }
+            // compacted once 501 of 1000 were dead; the other 99 wait for the next round
+            assertEquals(400 + 99, env.scheduledCount(), queue.getClass().getSimpleName());
+            int fired = 0;
+            double last = 0;
+            while (env.peek() < Environment.Infinity) {
+                env.step();
+                if (env.now() != last) fired++;
+                last = env.now();
+            }
+            assertEquals(200, fired, queue.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void unscheduledEventIsNotCancelled() {
+        Environment env = new Environment();
+        Event signal = env.event();
+        List<Object> got = new ArrayList<>();
+        env.process(ctx -> {
+            got.add(ctx.await(signal));
+            return null;
+        });
+        env.run();
+
+        assertFalse(env.cancel(signal));
+        assertFalse(signal.isCancelled());
+        signal.succeed("go");
+        env.run();
+        assertEquals(List.of("go"), got);
+    }
+}
@@ -0,0 +1,116 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the baton-passing hand-off between the event loop and process threads.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ProcessBatonTest {
+
+    @Test
+    void processRunsSynchronouslyInsideResumeCallback() {
+        Environment env = new Environment();
+        List<String> log = new ArrayList<>();
+        Event go = env.event();
+        env.process(ctx -> {
+            log.add("wait");
+            ctx.await(go);
+            log.add("resumed");
+            return null;
+        });
+        env.timeout(1).addCallback(e -> {
+            go.succeed(null);
+            log.add("trigger");
+            // registered after the process callback, so it must observe the body's side effects
+            go.addCallback(x -> log.add("after-" + log.get(log.size() - 1)));
+        });
+        env.run();
+        assertEquals(List.of("wait", "trigger", "resumed", "after-resumed"), log);
+    }
+
+    @Test
+    void onlyOneSideRunsAtATime() {
+        Environment env = new Environment();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        for (int p = 0; p < 20; p++) {
+            int seed = p;
+            env.process(ctx -> {
+                for (int i = 0; i < 200; i++) {
+                    if (inside.incrementAndGet() != 1) overlaps.incrementAndGet();
+                    inside.decrementAndGet();
+                    ctx.await(ctx.env().timeout((seed + i) % 3));
+                }
+                return null;
+            });
+        }
+        env.run();
+        assertEquals(0, overlaps.get());
+        assertNull(env.activeProcess());
+    }
+
+    @Test
+    void activeProcessTracksTheBatonHolder() {
+        Environment env = new Environment();
+        List<Object> seen = new ArrayList<>();
+        Process[] holder = new Process[1];
+        holder[0] = env.process(ctx -> {
+            seen.add(ctx.env().activeProcess());
+            ctx.await(ctx.env().timeout(1));
+            seen.add(ctx.env().activeProcess());
+            return null;
+        });
+        env.timeout(0.5).addCallback(e -> seen.add(env.activeProcess()));
+        env.run();
+        assertEquals(3, seen.size());
+        assertSame(holder[0], seen.get(0));
+        assertNull(seen.get(1));
+        assertSame(holder[0], seen.get(2));
+    }
+
+    @Test
+    void runReturnsOnceEveryProcessFinished() {
+        Environment env = new Environment();
+        int processes = 200;
+        AtomicInteger resumes = new AtomicInteger();
+        List<Process> started = new ArrayList<>();
+        for (int p = 0; p < processes; p++) {
+            started.add(env.process(ctx -> {
+                for (int i = 0; i < 50; i++) {
+                    ctx.await(ctx.env().timeout(1));
+                    resumes.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        env.run();
+        // the loop only returns when the schedule is empty, which requires every resume to have
+        // run to its next await rather than being polled for
+        assertEquals(50.0, env.now());
+        assertEquals(processes * 50, resumes.get());
+        assertTrue(started.stream().noneMatch(Process::isAlive));
+    }
+
+    @Test
+    void runKeepsTheLoopOnTheCallingThread() {
+        Environment env = new Environment();
+        Thread caller = Thread.currentThread();
+        List<Thread> seen = new ArrayList<>();
+        env.process(ctx -> {
+            ctx.await(ctx.env().timeout(1));
+            return null;
+        });
+        env.timeout(2).addCallback(e -> seen.add(Thread.currentThread()));
+        env.run();
+        assertEquals(List.of(caller), seen);
+    }
+}
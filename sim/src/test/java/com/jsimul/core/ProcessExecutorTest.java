@@ -0,0 +1,148 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for per-environment {@link ProcessExecutor}s and {@link Environment#close()}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ProcessExecutorTest {
+
+    @Test
+    void boundedPoolReusesThreadsOfFinishedProcesses() {
+        try (Environment env = Environment.builder()
+                .processExecutor(ProcessExecutor.platformThreads(2)).build()) {
+            List<String> names = new ArrayList<>();
+            int[] peak = new int[1];
+            for (int i = 0; i < 10; i++) {
+                // a new job every time unit, each lasting 1.5: never more than two alive
+                env.timeout(i).asEvent().addCallback(e -> env.process(ctx -> {
+                    names.add(Thread.currentThread().getName());
+                    peak[0] = Math.max(peak[0], ctx.env().liveProcessThreads());
+                    return ctx.await(ctx.env().timeout(1.5));
+                }));
+            }
+            env.run();
+
+            assertEquals(10, names.size());
+            assertEquals(2, peak[0]);
+            assertTrue(names.stream().allMatch(n -> n.startsWith("jsimul-process-")));
+            assertEquals(2, names.stream().distinct().count());
+            assertEquals(0, env.liveProcessThreads());
+        }
+    }
+
+    @Test
+    void boundedPoolFailsProcessesBeyondItsLimit() {
+        try (Environment env = Environment.builder()
+                .processExecutor(ProcessExecutor.platformThreads(2)).build()) {
+            for (int i = 0; i < 3; i++) {
+                env.process(ctx -> ctx.await(ctx.env().timeout(1)));
+            }
+            assertThrows(RejectedExecutionException.class, env::run);
+            assertEquals(0.0, env.now());
+        }
+    }
+
+    @Test
+    void rejectedProcessFailsExactlyOnce() {
+        try (Environment env = Environment.builder()
+                .processExecutor(ProcessExecutor.platformThreads(1)).build()) {
+            Process running = env.process(ctx -> ctx.await(ctx.env().timeout(1)));
+            Process rejected = env.process(ctx -> ctx.await(ctx.env().timeout(1)));
+            int[] failures = new int[1];
+            rejected.asEvent().addCallback(e -> failures[0]++);
+            rejected.asEvent().setDefused(true);
+            int steps = 0;
+            while (env.peek() < Environment.Infinity) {
+                env.step();
+                steps++;
+            }
+
+            // two starts, the running process's timeout and one completion each
+            assertEquals(5, steps);
+            assertEquals(1, failures[0]);
+            assertInstanceOf(RejectedExecutionException.class, rejected.asEvent().value());
+            assertTrue(running.asEvent().ok());
+            assertEquals(0, env.scheduledCount());
+            assertEquals(Environment.Infinity, env.peek());
+        }
+    }
+
+    @Test
+    void closeUnwindsSuspendedProcesses() {
+        Environment env = new Environment();
+        AtomicBoolean cleanedUp = new AtomicBoolean();
+        Event never = env.event();
+        env.process(ctx -> {
+            try {
+                return ctx.await(never);
+            } finally {
+                cleanedUp.set(true);
+            }
+        });
+        env.run();
+        assertEquals(1, env.liveProcessThreads());
+        assertFalse(cleanedUp.get());
+
+        env.close();
+        assertTrue(cleanedUp.get());
+        assertEquals(0, env.liveProcessThreads());
+    }
+
+    @Test
+    void closeUnwindsBodiesThatCatchTheTermination() {
+        Environment env = new Environment();
+        Event never = env.event();
+        AtomicBoolean swallowed = new AtomicBoolean();
+        AtomicBoolean resumed = new AtomicBoolean();
+        env.process(ctx -> {
+            try {
+                ctx.await(never);
+            } catch (Throwable t) {
+                swallowed.set(true);
+            }
+            // awaiting again re-raises the termination instead of waiting forever
+            ctx.await(ctx.env().timeout(1));
+            resumed.set(true);
+            return null;
+        });
+        Process quiet = env.process(ctx -> {
+            try {
+                ctx.await(never);
+            } catch (Throwable t) {
+                return "ignored";
+            }
+            return null;
+        });
+        env.run();
+        assertEquals(2, env.liveProcessThreads());
+
+        env.close();
+        assertTrue(swallowed.get());
+        assertFalse(resumed.get());
+        assertEquals(0, env.liveProcessThreads());
+        // a terminated body reports nothing, even when it returns normally
+        assertFalse(quiet.asEvent().triggered());
+    }
+
+    @Test
+    void environmentsDoNotShareExecutors() {
+        Environment a = new Environment();
+        Environment b = new Environment();
+        assertNotSame(a.processExecutor(), b.processExecutor());
+        assertEquals(Integer.MAX_VALUE, a.processExecutor().maxThreads());
+        Environment caller = Environment.builder().processExecutor(ProcessExecutor.callerThread()).build();
+        assertEquals(Continuations.AVAILABLE, caller.usesContinuations());
+        assertThrows(IllegalArgumentException.class, () -> ProcessExecutor.platformThreads(0));
+    }
+}
@@ -0,0 +1,205 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.collections.PreemptiveRequest;
+import com.jsimul.collections.PreemptiveResource;
+import com.jsimul.collections.Preempted;
+import com.jsimul.collections.Request;
+import com.jsimul.collections.Resource;
+import com.jsimul.collections.Store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for threadless processes built from {@link Process.Step}s.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ProcessStepTest {
+
+    @Test
+    void stepsReceiveEventValues() {
+        Environment env = new Environment();
+        List<Object> seen = new ArrayList<>();
+        Process p = env.process((ctx, v0) -> {
+            seen.add(v0);
+            ctx.then(ctx.env().timeout(2, "a"), (c1, v1) -> {
+                seen.add(v1);
+                c1.then(c1.env().timeout(3, "b"), (c2, v2) -> {
+                    seen.add(v2);
+                    c2.exit("done");
+                });
+            });
+        });
+        assertEquals("done", env.run(p));
+        assertEquals(5.0, env.now());
+        assertEquals(Arrays.asList(null, "a", "b"), seen);
+        assertFalse(p.isAlive());
+    }
+
+    @Test
+    void returningWithoutContinuationEndsWithNull() {
+        Environment env = new Environment();
+        Process p = env.process((ctx, v) -> ctx.then(ctx.env().timeout(1), (c, x) -> { }));
+        assertNull(env.run(p));
+        assertEquals(1.0, env.now());
+    }
+
+    @Test
+    void stepsRunOnTheLoopThread() {
+        Environment env = new Environment();
+        List<Thread> threads = new ArrayList<>();
+        Event probe = env.event();
+        probe.addCallback(e -> threads.add(Thread.currentThread()));
+        probe.succeed(null);
+        env.process(new Process.Step() {
+            int n;
+
+            @Override
+            public void resume(Process.StepContext ctx, Object value) {
+                threads.add(Thread.currentThread());
+                if (++n < 5) ctx.then(ctx.env().timeout(1), this);
+            }
+        });
+        env.run();
+        assertEquals(6, threads.size());
+        assertTrue(threads.stream().allMatch(t -> t == threads.get(0)));
+    }
+
+    @Test
+    void failureGoesToHandlerOrFailsProcess() {
+        Environment env = new Environment();
+        Event bad = env.event();
+        Process handled = env.process((ctx, v) -> ctx.then(bad,
+                (c, x) -> c.exit("unexpected"),
+                (c, err) -> c.exit("caught:" + ((Throwable) err).getMessage())));
+        Event bad2 = env.event();
+        Process unhandled = env.process((ctx, v) -> ctx.then(bad2, (c, x) -> c.exit("unexpected")));
+        unhandled.asEvent().setDefused(true);
+        // like await, a continuation does not defuse the event it waits for
+        bad.setDefused(true);
+        bad2.setDefused(true);
+        env.timeout(1).addCallback(e -> {
+            bad.fail(new IllegalStateException("boom"));
+            bad2.fail(new IllegalStateException("boom2"));
+        });
+        assertEquals("caught:boom", env.run(handled));
+        env.run();
+        assertFalse(unhandled.asEvent().ok());
+        assertEquals("boom2", ((Throwable) unhandled.asEvent().value()).getMessage());
+    }
+
+    @Test
+    void exceptionInStepFailsProcess() {
+        Environment env = new Environment();
+        Process p = env.process((ctx, v) -> {
+            throw new IllegalArgumentException("bad step");
+        });
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> env.run(p));
+        assertEquals("bad step", ex.getMessage());
+    }
+
+    @Test
+    void interruptIsDeliveredToFailureStep() {
+        Environment env = new Environment();
+        Process p = env.process((ctx, v) -> ctx.then(ctx.env().timeout(10),
+                (c, x) -> c.exit("finished"),
+                (c, err) -> c.exit("interrupted:" + ((Interrupt) err).cause() + "@" + c.env().now())));
+        env.timeout(3).addCallback(e -> p.interrupt("stop"));
+        assertEquals("interrupted:stop@3.0", env.run(p));
+        // the abandoned timeout must not resume the process again
+        env.run();
+        assertEquals(10.0, env.now());
+    }
+
+    @Test
+    void processedEventsAreFollowedWithoutRecursion() {
+        Environment env = new Environment();
+        Event done = env.event();
+        done.succeed(1);
+        env.run();
+        Process p = env.process(new Process.Step() {
+            int n;
+
+            @Override
+            public void resume(Process.StepContext ctx, Object value) {
+                if (++n == 200_000) {
+                    ctx.exit(n);
+                } else {
+                    ctx.then(done, this);
+                }
+            }
+        });
+        assertEquals(200_000, env.run(p));
+    }
+
+    @Test
+    void doubleContinuationIsRejected() {
+        Environment env = new Environment();
+        Process p = env.process((ctx, v) -> {
+            ctx.then(ctx.env().timeout(1), (c, x) -> { });
+            ctx.then(ctx.env().timeout(2), (c, x) -> { });
+        });
+        assertThrows(IllegalStateException.class, () -> env.run(p));
+    }
+
+    @Test
+    void interoperatesWithThreadedProcessesAndConditions() {
+        Environment env = new Environment();
+        Process stepper = env.process((ctx, v) -> ctx.then(
+                ctx.env().allOf(ctx.env().timeout(1, "x"), ctx.env().timeout(2, "y")),
+                (c, cv) -> c.exit(((ConditionValue) cv).toMap().size())));
+        Process threaded = env.process(ctx -> "waited:" + ctx.await(stepper));
+        assertEquals("waited:2", env.run(threaded));
+        assertEquals(2.0, env.now());
+    }
+
+    @Test
+    void worksWithResourcesAndStores() {
+        Environment env = new Environment();
+        Resource machine = new Resource(env, 1);
+        Store<String> parts = new Store<>(env, 10);
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "job" + i;
+            env.process((ctx, v) -> {
+                Request req = machine.request();
+                ctx.then(req, (c1, granted) -> c1.then(c1.env().timeout(2), (c2, x) -> {
+                    machine.release(req);
+                    parts.put(name);
+                }));
+            });
+        }
+        Process consumer = env.process(new Process.Step() {
+            @Override
+            public void resume(Process.StepContext ctx, Object value) {
+                if (value != null) log.add(value + "@" + ctx.env().now());
+                if (log.size() < 3) ctx.then(parts.get(), this);
+            }
+        });
+        env.run(consumer);
+        assertEquals(List.of("job0@2.0", "job1@4.0", "job2@6.0"), log);
+    }
+
+    @Test
+    void preemptionFailsTheRequestStep() {
+        Environment env = new Environment();
+        PreemptiveResource res = new PreemptiveResource(env, 1);
+        List<String> log = new ArrayList<>();
+        env.process((ctx, v) -> {
+            PreemptiveRequest req = res.request(5);
+            ctx.then(req, (c, granted) -> c.then(c.env().timeout(10), (c2, x) -> log.add("finished"),
+                    (c2, err) -> log.add((err instanceof Preempted ? "preempted@" : "other@") + c2.env().now())));
+        });
+        env.process((ctx, v) -> ctx.then(ctx.env().timeout(1), (c, x) -> c.then(res.request(0),
+                (c2, granted) -> log.add("vip@" + c2.env().now()))));
+        env.run();
+        assertTrue(log.contains("vip@1.0"), log.toString());
+    }
+}
@@ -0,0 +1,97 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the reusable per-process wait slot behind {@link Process.ProcessContext#await}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ProcessWaitSlotTest {
+
+    @Test
+    void awaitingDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx
+                && mx.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // continuation mode keeps the body on this thread, so its allocations are measurable here
+        Environment env = Environment.builder().continuations(true).threadConfined(true).build();
+        assumeTrue(env.usesContinuations(), "jdk.internal.vm not exported");
+        awaitAll(env, 2_000);
+        int n = 50_000;
+        Event[] events = prepared(env, n);
+        Process p = env.process(ctx -> {
+            long sum = 0;
+            for (Event e : events) {
+                sum += (Integer) ctx.await(e);
+            }
+            return sum;
+        });
+        env.step(); // start the process; it now waits on the first event
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        while (!p.asEvent().triggered()) {
+            env.step();
+        }
+        long perAwait = (mx.getThreadAllocatedBytes(tid) - before) / n;
+        assertTrue(perAwait < 8, "bytes per await: " + perAwait);
+        env.run();
+        assertEquals((long) n * (n - 1) / 2, p.asEvent().value());
+    }
+
+    private static void awaitAll(Environment env, int n) {
+        Event[] events = prepared(env, n);
+        env.process(ctx -> {
+            for (Event e : events) {
+                ctx.await(e);
+            }
+            return null;
+        });
+        env.run();
+    }
+
+    private static Event[] prepared(Environment env, int n) {
+        Event[] events = new Event[n];
+        for (int i = 0; i < n; i++) {
+            events[i] = env.event();
+            events[i].succeed(i);
+        }
+        return events;
+    }
+
+    @Test
+    void interruptReleasesTheSlotForTheNextAwait() {
+        Environment env = new Environment();
+        Event first = env.event();
+        Process p = env.process(ctx -> {
+            try {
+                ctx.await(first);
+                return "not interrupted";
+            } catch (Interrupt ex) {
+                assertNull(ctx.env().activeProcess().target());
+            }
+            // awaiting the same event again after the interrupt must work
+            return ctx.await(first);
+        });
+        env.timeout(1).addCallback(e -> p.interrupt("x"));
+        env.timeout(2).addCallback(e -> first.succeed("second wait"));
+        assertEquals("second wait", env.run(p));
+    }
+
+    @Test
+    void targetIsVisibleOnlyWhileWaiting() {
+        Environment env = new Environment();
+        Timeout t = env.timeout(1);
+        Process p = env.process(ctx -> ctx.await(t));
+        env.step(); // start
+        assertSame(t.asEvent(), p.target());
+        env.run();
+        assertNull(p.target());
+    }
+}
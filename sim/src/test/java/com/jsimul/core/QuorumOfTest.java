@@ -0,0 +1,122 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link QuorumOf} / {@link Environment#kOf} and callback detachment.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class QuorumOfTest {
+
+    @Test
+    void succeedsOnceKOperandsCompleted() {
+        Environment env = new Environment();
+        Timeout a = env.timeout(3.0, "A");
+        Timeout b = env.timeout(1.0, "B");
+        Timeout c = env.timeout(2.0, "C");
+        Timeout d = env.timeout(4.0, "D");
+
+        SimEvent quorum = env.kOf(2, a, b, c, d);
+        env.run(quorum);
+
+        assertEquals(2.0, env.now());
+        ConditionValue cv = (ConditionValue) quorum.asEvent().value();
+        assertEquals(List.of(b.asEvent(), c.asEvent()), List.copyOf(cv.toMap().keySet()));
+    }
+
+    @Test
+    void zeroQuorumSucceedsImmediately() {
+        Environment env = new Environment();
+        SimEvent quorum = env.kOf(0, env.timeout(5.0));
+        assertTrue(quorum.asEvent().triggered());
+        env.run(quorum);
+        assertEquals(0.0, env.now());
+    }
+
+    @Test
+    void rejectsKBeyondDistinctOperands() {
+        Environment env = new Environment();
+        Timeout a = env.timeout(1.0);
+        assertThrows(IllegalArgumentException.class, () -> env.kOf(2, a, a));
+        assertThrows(IllegalArgumentException.class, () -> env.kOf(-1, a));
+    }
+
+    @Test
+    void failingOperandFailsQuorum() {
+        Environment env = new Environment();
+        Event bad = env.event();
+        SimEvent quorum = env.kOf(2, env.timeout(1.0), bad, env.timeout(2.0));
+        bad.fail(new IllegalStateException("replica down"));
+        quorum.asEvent().setDefused(true);
+        env.run();
+        assertFalse(quorum.asEvent().ok());
+        assertInstanceOf(IllegalStateException.class, quorum.asEvent().value());
+    }
+
+    @Test
+    void triggeredConditionDetachesFromOutstandingOperands() {
+        Environment env = new Environment();
+        List<Event> replies = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            replies.add(env.event());
+        }
+        SimEvent firstTwo = new QuorumOf(env, 2, replies);
+        SimEvent any = env.anyOf(replies.toArray());
+        replies.get(7).succeed("r7");
+        replies.get(3).succeed("r3");
+        env.run();
+
+        assertTrue(any.asEvent().ok());
+        assertTrue(firstTwo.asEvent().ok());
+        // outstanding replies no longer hold the conditions' callbacks
+        Event late = replies.get(500);
+        late.succeed("late");
+        assertTrue(EventCallbacks.detach(late).isEmpty());
+    }
+
+    @Test
+    void conditionsOverAlreadyTriggeredOperandsKeepEveryOperand() {
+        Environment env = new Environment();
+        Event a = env.event();
+        Event b = env.event();
+        Event c = env.event();
+        a.succeed("A");
+        b.succeed("B");
+        c.succeed("C");
+        SimEvent any = env.anyOf(a, b, c);
+        SimEvent all = env.allOf(a, b, c);
+        SimEvent two = env.kOf(2, a, b, c);
+        env.run();
+
+        List<Event> expected = List.of(a, b, c);
+        for (SimEvent condition : List.of(any, all, two)) {
+            ConditionValue cv = (ConditionValue) condition.asEvent().value();
+            assertIterableEquals(expected, cv.events());
+            assertEquals(3, cv.size());
+        }
+    }
+
+    @Test
+    void conditionsOverAlreadyProcessedOperandsKeepEveryOperand() {
+        Environment env = new Environment();
+        Event a = env.event();
+        Event b = env.event();
+        a.succeed("A");
+        b.succeed("B");
+        env.run();
+        SimEvent any = env.anyOf(a, b);
+        SimEvent all = env.allOf(a, b);
+        env.run();
+
+        assertEquals(Map.of(a, "A", b, "B"), ((ConditionValue) any.asEvent().value()).toMap());
+        assertEquals(Map.of(a, "A", b, "B"), ((ConditionValue) all.asEvent().value()).toMap());
+    }
+}
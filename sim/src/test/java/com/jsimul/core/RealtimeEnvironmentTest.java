@@ -2,6 +2,9 @@ package com.jsimul.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 import org.junit.jupiter.api.Test;
 
 /**
@@ -176,7 +179,7 @@ public class RealtimeEnvironmentTest {
 
         Event completed = env.event();
         completed.markOk("done");
-        completed.detachCallbacks(); // mark processed so resolveUntil returns immediately
+        EventCallbacks.detach(completed); // mark processed so resolveUntil returns immediately
 
         Object result = env.run(completed);
         assertEquals("done", result);
@@ -207,4 +210,48 @@ public class RealtimeEnvironmentTest {
         assertEquals("late", result);
         assertEquals(0, controller.sleepCalls); // target time was 0, so no sleeping required
     }
+
+    @Test
+    void idleRunParksInsteadOfSpinning() throws InterruptedException {
+        RealtimeEnvironment env = new RealtimeEnvironment(0.0, 1.0, true);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Event gate = env.event();
+        Thread t = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            gate.succeed("late");
+        });
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        t.start();
+
+        assertEquals("late", env.run(gate));
+        t.join();
+        long cpuMillis = (threads.getCurrentThreadCpuTime() - cpuBefore) / 1_000_000;
+        assertTrue(cpuMillis < 150, "idle wait burned " + cpuMillis + "ms of CPU");
+    }
+
+    @Test
+    void externalEventCutsSleepShort() throws InterruptedException {
+        RealtimeEnvironment env = new RealtimeEnvironment(0.0, 1.0, false);
+        env.timeout(5.0);
+        Event gate = env.event();
+        Thread t = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            gate.succeed("early");
+        });
+        long start = System.nanoTime();
+        t.start();
+
+        assertEquals("early", env.run(gate));
+        t.join();
+        assertEquals(0.0, env.now());
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
 }
@@ -0,0 +1,105 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for scheduling from threads that do not hold the process baton.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ScheduleInboxTest {
+
+    @Test
+    void foreignRequestsAreSequencedWhenTheLoopDrainsThem() {
+        for (int round = 0; round < 20; round++) {
+            Environment env = new Environment();
+            List<String> log = new ArrayList<>();
+            env.process(ctx -> {
+                Event external = ctx.env().event();
+                external.addCallback(e -> log.add("external"));
+                Thread other = new Thread(() -> external.succeed(null));
+                other.start();
+                other.join();
+                // scheduled later in wall-clock time, but by the baton holder
+                Event own = ctx.env().event();
+                own.addCallback(e -> log.add("own"));
+                own.succeed(null);
+                return null;
+            });
+            env.run();
+            assertEquals(List.of("own", "external"), log);
+        }
+    }
+
+    @Test
+    void concurrentProducersKeepTheirOwnOrder() {
+        int producers = 4;
+        int perProducer = 2_000;
+        Environment env = new Environment();
+        List<int[]> fired = Collections.synchronizedList(new ArrayList<>());
+        env.process(ctx -> {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        int seq = i;
+                        Event e = new Event(env).markOk(null);
+                        e.addCallback(ev -> fired.add(new int[]{producer, seq}));
+                        env.schedule(e, Event.NORMAL, 1.0);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread t : threads) {
+                t.join();
+            }
+            return null;
+        });
+        env.run();
+
+        assertEquals(1.0, env.now());
+        assertEquals(producers * perProducer, fired.size());
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (int[] f : fired) {
+            assertEquals(last[f[0]] + 1, f[1]);
+            last[f[0]] = f[1];
+        }
+    }
+
+    @Test
+    void peekDrainsPendingRequests() {
+        Environment env = new Environment();
+        double[] seen = new double[1];
+        env.process(ctx -> {
+            Thread other = new Thread(() -> env.timeout(5.0));
+            other.start();
+            other.join();
+            seen[0] = ctx.env().peek();
+            return null;
+        });
+        env.run();
+        assertEquals(5.0, seen[0]);
+        assertEquals(5.0, env.now());
+    }
+
+    @Test
+    void otherThreadsScheduleDirectlyBetweenRuns() throws Exception {
+        Environment env = new Environment();
+        Thread other = new Thread(() -> env.timeout(2.0));
+        other.start();
+        other.join();
+        assertEquals(1, env.scheduledCount());
+        env.run();
+        assertEquals(2.0, env.now());
+    }
+}
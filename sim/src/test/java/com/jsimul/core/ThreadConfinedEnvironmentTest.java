@@ -0,0 +1,95 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jsimul.collections.Resource;
+import com.jsimul.collections.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the lock-free thread-confined {@link Environment} mode.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ThreadConfinedEnvironmentTest {
+
+    @Test
+    void builderFlags() {
+        assertFalse(new Environment().isThreadConfined());
+        assertTrue(Environment.builder().threadConfined(true).build().isThreadConfined());
+        assertTrue(Environment.builder().verifyConfinement(true).build().isThreadConfined());
+    }
+
+    @Test
+    void confinedRunMatchesSharedRun() {
+        Environment shared = new Environment();
+        Environment confined = Environment.builder().verifyConfinement(true).build();
+        assertEquals(scenario(shared), scenario(confined));
+        assertEquals(shared.now(), confined.now());
+    }
+
+    private static List<String> scenario(Environment env) {
+        List<String> log = new ArrayList<>();
+        Resource machine = new Resource(env, 2);
+        for (int i = 0; i < 5; i++) {
+            int job = i;
+            env.process(ctx -> {
+                ctx.await(ctx.env().timeout(job * 0.5));
+                Request req = machine.request();
+                ctx.await(req);
+                log.add("start" + job + "@" + ctx.env().now());
+                ctx.await(ctx.env().timeout(3));
+                machine.release(req);
+                return null;
+            });
+            env.process((ctx, v) -> ctx.then(ctx.env().timeout(job + 0.25),
+                    (c, x) -> log.add("step" + job + "@" + c.env().now())));
+        }
+        env.run();
+        return log;
+    }
+
+    @Test
+    void verificationRejectsForeignThreads() throws Exception {
+        Environment env = Environment.builder().verifyConfinement(true).build();
+        Event ready = env.event();
+        env.timeout(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            try {
+                ready.succeed("late");
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        other.start();
+        other.join();
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        // the owning thread keeps working
+        env.run();
+        assertEquals(1.0, env.now());
+    }
+
+    @Test
+    void ownershipFollowsTheProcessBaton() {
+        Environment env = Environment.builder().verifyConfinement(true).build();
+        Process p = env.process(ctx -> {
+            Event e = ctx.env().event();
+            e.addCallback(x -> { });
+            ctx.await(ctx.env().timeout(1));
+            e.succeed("ok");
+            return ctx.await(e);
+        });
+        assertEquals("ok", env.run(p));
+        // back on the calling thread after run returns
+        env.timeout(1);
+        env.step();
+        assertEquals(2.0, env.now());
+    }
+}
@@ -0,0 +1,92 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the integer-clock {@link TickEnvironment}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class TickEnvironmentTest {
+
+    @Test
+    void repeatedDelaysDoNotDrift() {
+        Environment plain = new Environment();
+        TickEnvironment ticks = new TickEnvironment(0.1);
+        for (Environment env : List.of(plain, ticks)) {
+            env.process(ctx -> {
+                for (int i = 0; i < 1_000; i++) {
+                    ctx.await(ctx.env().timeout(0.1));
+                }
+                return null;
+            });
+            env.run();
+        }
+        assertNotEquals(100.0, plain.now());
+        assertEquals(1_000, ticks.nowTicks());
+        assertEquals(100.0, ticks.now());
+    }
+
+    @Test
+    void tickApiSchedulesExactly() {
+        TickEnvironment env = new TickEnvironment(0.001, 5);
+        List<Long> seen = new ArrayList<>();
+        env.timeoutTicks(3).asEvent().addCallback(e -> seen.add(env.nowTicks()));
+        Event bare = env.event();
+        bare.addCallback(e -> seen.add(env.nowTicks()));
+        bare.markOk("x");
+        env.scheduleTicks(bare, Event.NORMAL, 1);
+        assertEquals(0.006, env.peek(), 1e-12);
+        env.run();
+        assertEquals(List.of(6L, 8L), seen);
+        assertEquals(0.008, env.now(), 1e-12);
+    }
+
+    @Test
+    void doubleDelaysRoundToNearestTick() {
+        TickEnvironment env = new TickEnvironment(0.5);
+        Timeout t = env.timeout(0.74, "v");
+        assertEquals("v", env.run(t));
+        assertEquals(1, env.nowTicks());
+        env.run(3.1);
+        assertEquals(6, env.nowTicks());
+        assertThrows(IllegalArgumentException.class, () -> env.runUntilTick(6));
+    }
+
+    @Test
+    void builderCreatesTickEnvironment() {
+        Environment env = Environment.builder()
+                .tickResolution(0.25).initialTime(2.0).threadConfined(true).build();
+        TickEnvironment ticks = assertInstanceOf(TickEnvironment.class, env);
+        assertEquals(8, ticks.nowTicks());
+        assertEquals(2.0, ticks.now());
+        assertThrows(IllegalArgumentException.class, () -> Environment.builder().tickResolution(0));
+    }
+
+    @Test
+    void timingWheelWidthIsConvertedToTicks() throws ReflectiveOperationException {
+        TickEnvironment env = (TickEnvironment) Environment.builder()
+                .tickResolution(0.001).timingWheel(0.5).build();
+        Field queueField = Environment.class.getDeclaredField("queue");
+        queueField.setAccessible(true);
+        TimingWheelEventQueue wheel =
+                assertInstanceOf(TimingWheelEventQueue.class, queueField.get(env));
+        Field widthField = TimingWheelEventQueue.class.getDeclaredField("tickWidth");
+        widthField.setAccessible(true);
+        assertEquals(500.0, widthField.getDouble(wheel), 1e-9);
+
+        List<Long> seen = new ArrayList<>();
+        for (int delay : new int[]{3, 1_200, 2}) {
+            env.timeout(delay * 0.001).asEvent().addCallback(e -> seen.add(env.nowTicks()));
+        }
+        env.run();
+        assertEquals(List.of(2L, 3L, 1_200L), seen);
+    }
+}
@@ -0,0 +1,59 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for directly scheduled {@link Timeout}s.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class TimeoutTest {
+
+    @Test
+    void valueIsSetOnCreationAndDeliveredAtDueTime() {
+        Environment env = new Environment();
+        Timeout t = env.timeout(2.5, "payload");
+        assertTrue(t.asEvent().triggered());
+        assertTrue(t.asEvent().ok());
+        assertFalse(t.asEvent().isProcessed());
+        assertEquals(1, env.scheduledCount());
+        assertEquals(2.5, env.peek());
+
+        List<Double> seen = new ArrayList<>();
+        t.addCallback(e -> seen.add(env.now()));
+        assertEquals("payload", env.run(t));
+        assertEquals(List.of(2.5), seen);
+    }
+
+    @Test
+    void sameTimeTimeoutsFireInCreationOrder() {
+        Environment env = new Environment();
+        List<String> order = new ArrayList<>();
+        env.timeout(1, "a").addCallback(e -> order.add((String) e.value()));
+        env.timeout(0.5).addCallback(e -> env.timeout(0.5, "c").addCallback(x -> order.add((String) x.value())));
+        env.timeout(1, "b").addCallback(e -> order.add((String) e.value()));
+        env.run();
+        assertEquals(List.of("a", "b", "c"), order);
+    }
+
+    @Test
+    void pendingTimeoutIsNotPartOfConditionValue() {
+        Environment env = new Environment();
+        Timeout fast = env.timeout(1, "fast");
+        Timeout slow = env.timeout(5, "slow");
+        ConditionValue cv = (ConditionValue) env.run(env.anyOf(fast, slow));
+        assertTrue(cv.contains(fast.asEvent()));
+        assertFalse(cv.contains(slow.asEvent()));
+    }
+
+    @Test
+    void negativeDelayIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Environment().timeout(-1));
+    }
+}
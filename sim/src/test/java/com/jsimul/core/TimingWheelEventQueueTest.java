@@ -0,0 +1,119 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TimingWheelEventQueue}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class TimingWheelEventQueueTest {
+
+    @Test
+    void matchesReferenceHeapOrder() {
+        Environment env = new Environment();
+        EventQueue reference = new HeapEventQueue();
+        // two levels of 64 ticks of 0.25: a horizon of 1024 time units, so some entries overflow
+        EventQueue queue = new TimingWheelEventQueue(0.25, 2, new ArrayHeapEventQueue());
+        Random rnd = new Random(11);
+        long id = 0;
+        double now = 0;
+        for (int round = 0; round < 50_000; round++) {
+            int adds = rnd.nextInt(4);
+            for (int a = 0; a < adds; a++) {
+                Event e = new Event(env);
+                double delay = switch (rnd.nextInt(4)) {
+                    case 0 -> rnd.nextInt(4) * 0.125;
+                    case 1 -> rnd.nextExponential();
+                    case 2 -> rnd.nextInt(200) * 0.5;
+                    default -> rnd.nextInt(3_000);
+                };
+                int prio = rnd.nextInt(3) - 1;
+                reference.add(now + delay, prio, ++id, e);
+                queue.add(now + delay, prio, id, e);
+            }
+            if (rnd.nextBoolean() && !reference.isEmpty()) {
+                now = reference.peekTime();
+                assertEquals(now, queue.peekTime());
+                assertSame(reference.poll(), queue.poll());
+            }
+            assertEquals(reference.size(), queue.size());
+        }
+        while (!reference.isEmpty()) {
+            assertEquals(reference.peekTime(), queue.peekTime());
+            assertSame(reference.poll(), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertEquals(Environment.Infinity, queue.peekTime());
+    }
+
+    @Test
+    void headBeforeSeesBucketedEntries() {
+        Environment env = new Environment();
+        TimingWheelEventQueue queue = new TimingWheelEventQueue(1.0);
+        assertFalse(queue.headBefore(0, 0, 0));
+        queue.add(5.5, Event.NORMAL, 5, new Event(env));
+        assertTrue(queue.headBefore(6.0, Event.URGENT, 1));
+        assertTrue(queue.headBefore(5.5, Event.NORMAL, 6));
+        assertFalse(queue.headBefore(5.5, Event.URGENT, 9));
+        assertFalse(queue.headBefore(5.0, Event.NORMAL, 1));
+    }
+
+    @Test
+    void handlesNegativeAndInfiniteTimes() {
+        Environment env = new Environment();
+        TimingWheelEventQueue queue = new TimingWheelEventQueue(0.5);
+        Event inf = new Event(env);
+        Event neg = new Event(env);
+        Event near = new Event(env);
+        queue.add(Environment.Infinity, Event.NORMAL, 1, inf);
+        queue.add(-3.0, Event.NORMAL, 2, neg);
+        queue.add(2.0, Event.NORMAL, 3, near);
+        assertSame(neg, queue.poll());
+        assertSame(near, queue.poll());
+        assertSame(inf, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheelEventQueue(0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheelEventQueue(Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimingWheelEventQueue(1.0, 11, new ArrayHeapEventQueue()));
+        assertThrows(IllegalArgumentException.class, () -> Environment.builder().timingWheel(-1));
+    }
+
+    @Test
+    void environmentWithWheelKeepsTimeoutOrder() {
+        List<String> expected = trace(new Environment());
+        assertEquals(expected, trace(Environment.builder().timingWheel(0.1).build()));
+    }
+
+    private static List<String> trace(Environment env) {
+        List<String> log = new ArrayList<>();
+        Random rnd = new Random(5);
+        for (int p = 0; p < 20; p++) {
+            String name = "p" + p;
+            double step = 0.05 + rnd.nextInt(40) * 0.05;
+            env.process(new Process.Step() {
+                int i;
+
+                @Override
+                public void resume(Process.StepContext ctx, Object value) {
+                    log.add(ctx.env().now() + " " + name);
+                    if (i++ < 50) ctx.then(ctx.env().timeout(step), this);
+                }
+            });
+        }
+        env.run();
+        return log;
+    }
+}
@@ -0,0 +1,188 @@
+package com.jsimul.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the zero-delay lanes in {@link Environment} keep the {@code (time, priority, id)}
+ * processing order and keep same-time events out of the {@link EventQueue}.
+ *
+ * @author waiting
+ * @date 2025/12/08
+ */
+public class ZeroDelayLaneTest {
+
+    private static final class CountingQueue implements EventQueue {
+        final HeapEventQueue delegate = new HeapEventQueue();
+        int adds;
+
+        @Override
+        public void add(double time, int priority, long id, Event event) {
+            adds++;
+            delegate.add(time, priority, id, event);
+        }
+
+        @Override
+        public double peekTime() {
+            return delegate.peekTime();
+        }
+
+        @Override
+        public boolean headBefore(double time, int priority, long id) {
+            return delegate.headBefore(time, priority, id);
+        }
+
+        @Override
+        public Event poll() {
+            return delegate.poll();
+        }
+
+        @Override
+        public int peekPriority() {
+            return delegate.peekPriority();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public int removeIf(Predicate<Event> filter) {
+            return delegate.removeIf(filter);
+        }
+    }
+
+    private record Key(double time, int priority, long id, int label) {
+    }
+
+    @Test
+    void urgentBeatsEarlierNormalAtSameTime() {
+        Environment env = new Environment();
+        List<String> order = new ArrayList<>();
+        Event normal = env.event();
+        normal.addCallback(e -> order.add("normal"));
+        Event urgent = env.event();
+        urgent.addCallback(e -> order.add("urgent"));
+        Event custom = env.event();
+        custom.addCallback(e -> order.add("custom"));
+
+        env.schedule(normal.markOk(null), Event.NORMAL, 0);
+        env.schedule(custom.markOk(null), -1, 0);
+        env.schedule(urgent.markOk(null), Event.URGENT, 0);
+        env.run();
+
+        assertEquals(List.of("custom", "urgent", "normal"), order);
+    }
+
+    @Test
+    void queuedEntryAtCurrentTimeKeepsItsPlace() {
+        Environment env = new Environment();
+        List<String> order = new ArrayList<>();
+        Event first = env.event();
+        Event timedNormal = env.event();
+        Event timedUrgent = env.event();
+        timedNormal.addCallback(e -> order.add("timedNormal"));
+        timedUrgent.addCallback(e -> order.add("timedUrgent"));
+        first.addCallback(e -> {
+            order.add("first");
+            Event laneNormal = env.event();
+            laneNormal.addCallback(x -> order.add("laneNormal"));
+            env.schedule(laneNormal.markOk(null), Event.NORMAL, 0);
+            Event laneUrgent = env.event();
+            laneUrgent.addCallback(x -> order.add("laneUrgent"));
+            env.schedule(laneUrgent.markOk(null), Event.URGENT, 0);
+        });
+        env.schedule(first.markOk(null), Event.NORMAL, 2.0);
+        env.schedule(timedNormal.markOk(null), Event.NORMAL, 2.0);
+        env.schedule(timedUrgent.markOk(null), Event.URGENT, 2.0);
+        env.run();
+
+        // timedUrgent (urgent, id 3) < first; after first: laneUrgent (urgent) < timedNormal (id 2) < laneNormal
+        assertEquals(List.of("timedUrgent", "first", "laneUrgent", "timedNormal", "laneNormal"), order);
+    }
+
+    @Test
+    void randomScheduleMatchesReferenceOrdering() {
+        Environment env = new Environment();
+        List<Integer> actual = new ArrayList<>();
+        long[] nextId = {0};
+        List<Integer> expected = referenceOrder(200);
+
+        for (int label = 0; label < 200; label++) {
+            scheduleLabel(env, actual, nextId, label, label % 7 * 0.5, label % 3);
+        }
+        env.run();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void zeroDelayEventsBypassQueue() {
+        CountingQueue queue = new CountingQueue();
+        Environment env = new Environment(0.0, queue);
+        Process p = env.process(ctx -> {
+            for (int i = 0; i < 10; i++) {
+                Event e = ctx.env().event();
+                e.succeed(i);
+                ctx.await(e);
+            }
+            ctx.await(ctx.env().timeout(1.0));
+            return "done";
+        });
+        assertEquals("done", env.run(p));
+        // only the timeout needed the queue
+        assertEquals(1, queue.adds);
+        assertEquals(1.0, env.now());
+        assertEquals(0, env.scheduledCount());
+    }
+
+    private static void scheduleLabel(Environment env, List<Integer> actual, long[] nextId,
+                                      int label, double delay, int priority) {
+        Event e = env.event();
+        e.addCallback(ev -> {
+            actual.add(label);
+            Random rnd = new Random(label);
+            int children = label < 2_000 ? rnd.nextInt(3) : 0;
+            for (int c = 0; c < children; c++) {
+                int child = label * 10 + 1_000 + c;
+                scheduleLabel(env, actual, nextId, child, rnd.nextBoolean() ? 0.0 : rnd.nextInt(3) * 0.5,
+                        rnd.nextInt(3));
+            }
+        });
+        env.schedule(e.markOk(null), priority, delay);
+    }
+
+    /**
+     * Replays {@link #scheduleLabel} on a plain priority queue of (time, priority, id) keys.
+     */
+    private static List<Integer> referenceOrder(int roots) {
+        PriorityQueue<Key> pq = new PriorityQueue<>(Comparator.comparingDouble(Key::time)
+                .thenComparingInt(Key::priority).thenComparingLong(Key::id));
+        long id = 0;
+        for (int label = 0; label < roots; label++) {
+            pq.add(new Key(label % 7 * 0.5, label % 3, ++id, label));
+        }
+        List<Integer> order = new ArrayList<>();
+        while (!pq.isEmpty()) {
+            Key k = pq.poll();
+            order.add(k.label());
+            Random rnd = new Random(k.label());
+            int children = k.label() < 2_000 ? rnd.nextInt(3) : 0;
+            for (int c = 0; c < children; c++) {
+                int child = k.label() * 10 + 1_000 + c;
+                double delay = rnd.nextBoolean() ? 0.0 : rnd.nextInt(3) * 0.5;
+                pq.add(new Key(k.time() + delay, rnd.nextInt(3), ++id, child));
+            }
+        }
+        return order;
+    }
+}